@@ -5,23 +5,92 @@ import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+
+/**
+ * Por defecto solicita Long.MAX_VALUE, es decir, demanda ilimitada.
+ * <p>
+ * En modo prefetch solo pide {@code prefetch} elementos y vuelve a solicitar cuando se ha
+ * consumido la fracción {@code replenishFraction} de la ventana (similar a limitRate).
+ * En modo adaptativo, además, la ventana crece o se reduce entre {@code minPrefetch} y
+ * {@code maxPrefetch} según lo que tarda onNext, buscando que una ventana cubra ~10ms de trabajo.
+ */
 public class DefaultSubscriber<T> implements Subscriber<T> {
 
     private static final Logger log = LoggerFactory.getLogger(DefaultSubscriber.class);
+    private static final long TARGET_WINDOW_NANOS = Duration.ofMillis(10).toNanos();
     private final String name;
+    private final boolean bounded;
+    private final boolean adaptive;
+    private final double replenishFraction;
+    private final int minPrefetch;
+    private final int maxPrefetch;
+    private Subscription subscription;
+    private int window;
+    private int limit;
+    private long outstanding;
+    private long averageNanos;
 
     public DefaultSubscriber(String name) {
         this.name = name;
+        this.bounded = false;
+        this.adaptive = false;
+        this.replenishFraction = 1;
+        this.minPrefetch = 0;
+        this.maxPrefetch = 0;
+    }
+
+    public DefaultSubscriber(String name, int prefetch, double replenishFraction) {
+        this(name, prefetch, prefetch, replenishFraction, false);
+    }
+
+    public DefaultSubscriber(String name, int minPrefetch, int maxPrefetch, double replenishFraction) {
+        this(name, minPrefetch, maxPrefetch, replenishFraction, true);
+    }
+
+    private DefaultSubscriber(String name, int minPrefetch, int maxPrefetch, double replenishFraction, boolean adaptive) {
+        if (minPrefetch <= 0 || maxPrefetch < minPrefetch) {
+            throw new IllegalArgumentException("Se requiere 0 < minPrefetch <= maxPrefetch");
+        }
+        if (replenishFraction <= 0 || replenishFraction > 1) {
+            throw new IllegalArgumentException("replenishFraction debe estar en (0, 1]");
+        }
+        this.name = name;
+        this.bounded = true;
+        this.adaptive = adaptive;
+        this.replenishFraction = replenishFraction;
+        this.minPrefetch = minPrefetch;
+        this.maxPrefetch = maxPrefetch;
+        this.window = minPrefetch;
+        this.limit = this.limitFor(minPrefetch);
     }
 
     @Override
     public void onSubscribe(Subscription subscription) {
-        subscription.request(Long.MAX_VALUE);
+        this.subscription = subscription;
+        if (!this.bounded) {
+            subscription.request(Long.MAX_VALUE);
+            return;
+        }
+        this.outstanding = this.window;
+        subscription.request(this.window);
     }
 
     @Override
     public void onNext(T item) {
+        long start = this.adaptive ? System.nanoTime() : 0;
         log.info("{} recibido: {}", this.name, item);
+        if (!this.bounded) return;
+
+        if (this.adaptive) {
+            long elapsed = System.nanoTime() - start;
+            // Media móvil exponencial con peso 1/8 para la última muestra
+            this.averageNanos = this.averageNanos == 0 ? elapsed : this.averageNanos + (elapsed - this.averageNanos) / 8;
+        }
+        this.outstanding--;
+        if (this.window - this.outstanding >= this.limit) {
+            this.replenish();
+        }
     }
 
     @Override
@@ -33,4 +102,21 @@ public class DefaultSubscriber<T> implements Subscriber<T> {
     public void onComplete() {
         log.info("{} ¡completado!", this.name);
     }
+
+    private void replenish() {
+        if (this.adaptive) {
+            long fit = TARGET_WINDOW_NANOS / Math.max(this.averageNanos, 1);
+            this.window = (int) Math.max(this.minPrefetch, Math.min(this.maxPrefetch, fit));
+            this.limit = this.limitFor(this.window);
+        }
+        long toRequest = this.window - this.outstanding;
+        if (toRequest > 0) {
+            this.outstanding += toRequest; // antes de request, por si vuelve a entrar a onNext
+            this.subscription.request(toRequest);
+        }
+    }
+
+    private int limitFor(int window) {
+        return Math.max(1, (int) (window * this.replenishFraction));
+    }
 }
@@ -0,0 +1,81 @@
+package dev.magadiflo.app.common;
+
+import com.github.javafaker.Faker;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Generador de datos falsos thread-safe y rápido.
+ * <p>
+ * Faker no es thread-safe y resuelve cada nombre, correo o país desde sus YAML en cada llamada.
+ * Aquí se usa Faker solo una vez, al construir, para materializar pools de valores; después cada
+ * hilo elige valores con su propio SplittableRandom, sin bloqueos ni memoria compartida mutable.
+ * <p>
+ * Con la misma semilla los pools son siempre los mismos, y el n-ésimo hilo que use el servicio
+ * obtiene siempre la misma secuencia.
+ */
+public class FakeData {
+
+    private static final int DEFAULT_POOL_SIZE = 1024;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    private final String[] firstNames;
+    private final String[] emails;
+    private final String[] countries;
+    private final String[] productNames;
+    private final AtomicLong threadSeeds;
+    private final ThreadLocal<SplittableRandom> random;
+
+    public FakeData(long seed) {
+        this(seed, DEFAULT_POOL_SIZE);
+    }
+
+    public FakeData(long seed, int poolSize) {
+        Faker faker = new Faker(Locale.ENGLISH, new Random(seed));
+        this.firstNames = pool(poolSize, () -> faker.name().firstName());
+        this.emails = pool(poolSize, () -> faker.internet().emailAddress());
+        this.countries = pool(poolSize, () -> faker.country().name());
+        this.productNames = pool(poolSize, () -> faker.commerce().productName());
+        this.threadSeeds = new AtomicLong(seed);
+        this.random = ThreadLocal.withInitial(() -> new SplittableRandom(this.threadSeeds.addAndGet(GOLDEN_GAMMA)));
+    }
+
+    public String firstName() {
+        return pick(this.firstNames);
+    }
+
+    public String email() {
+        return pick(this.emails);
+    }
+
+    public String country() {
+        return pick(this.countries);
+    }
+
+    public String productName() {
+        return pick(this.productNames);
+    }
+
+    /**
+     * Igual que faker.random().nextInt(min, max): ambos extremos incluidos. El límite se calcula
+     * en long para que max == Integer.MAX_VALUE no desborde.
+     */
+    public int nextInt(int min, int max) {
+        return (int) this.random.get().nextLong(min, (long) max + 1);
+    }
+
+    private String pick(String[] pool) {
+        return pool[this.random.get().nextInt(pool.length)];
+    }
+
+    private static String[] pool(int size, Supplier<String> generator) {
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = generator.get();
+        }
+        return values;
+    }
+}
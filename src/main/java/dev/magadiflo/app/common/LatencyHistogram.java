@@ -0,0 +1,71 @@
+package dev.magadiflo.app.common;
+
+import java.util.Arrays;
+
+/**
+ * Histograma compacto con cubetas logarítmicas para latencias en nanosegundos.
+ * <p>
+ * Cada potencia de 2 se divide en 8 sub-cubetas (error relativo máximo del 12.5%), así que
+ * todo el rango de un long cabe en ~500 contadores. record() no crea objetos.
+ * No es thread-safe: pensado para usarse desde onNext, que la especificación ya serializa.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        this.counts[indexOf(nanos)]++;
+        this.total++;
+        if (nanos > this.max) this.max = nanos;
+    }
+
+    public long count() {
+        return this.total;
+    }
+
+    public long max() {
+        return this.max;
+    }
+
+    /**
+     * @param percentile entre 0 y 100
+     * @return límite superior de la cubeta donde cae el percentil (nunca mayor que el máximo real)
+     */
+    public long percentile(double percentile) {
+        if (this.total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * this.total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += this.counts[i];
+            if (seen >= target) return Math.min(upperBoundOf(i), this.max);
+        }
+        return this.max;
+    }
+
+    public void reset() {
+        Arrays.fill(this.counts, 0);
+        this.total = 0;
+        this.max = 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) ((value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1));
+        return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + SUB_BITS;
+        long sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lower = (1L << exponent) | (sub << (exponent - SUB_BITS));
+        return lower + (1L << (exponent - SUB_BITS)) - 1;
+    }
+}
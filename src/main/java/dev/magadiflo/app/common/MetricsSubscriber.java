@@ -0,0 +1,89 @@
+package dev.magadiflo.app.common;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Subscriber que en lugar de registrar cada elemento mide el flujo: elementos/s, tiempo entre
+ * llegadas (histograma p50/p90/p99/max) y tiempo desde la suscripción hasta el primer elemento
+ * y hasta la finalización. El resumen se imprime al completar o con error, o cuando se llame
+ * a {@link #logSummary()}.
+ */
+public class MetricsSubscriber<T> implements Subscriber<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsSubscriber.class);
+    private final String name;
+    private final LatencyHistogram interArrival = new LatencyHistogram();
+    private Subscription subscription;
+    private long subscribedAt;
+    private long firstItemAt;
+    private long lastItemAt;
+    private long terminatedAt;
+    private long count;
+
+    public MetricsSubscriber(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+        this.subscribedAt = System.nanoTime();
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T item) {
+        long now = System.nanoTime();
+        if (this.count == 0) {
+            this.firstItemAt = now;
+        } else {
+            this.interArrival.record(now - this.lastItemAt);
+        }
+        this.lastItemAt = now;
+        this.count++;
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        this.terminatedAt = System.nanoTime();
+        log.error("{} error: {}", this.name, throwable.getMessage());
+        this.logSummary();
+    }
+
+    @Override
+    public void onComplete() {
+        this.terminatedAt = System.nanoTime();
+        log.info("{} ¡completado!", this.name);
+        this.logSummary();
+    }
+
+    public void logSummary() {
+        long end = this.terminatedAt != 0 ? this.terminatedAt : System.nanoTime();
+        long active = this.count > 1 ? this.lastItemAt - this.firstItemAt : 0;
+        long itemsPerSecond = active > 0 ? (this.count - 1) * 1_000_000_000L / active : 0;
+        log.info("{} métricas: {} elementos, {} elementos/s, primer elemento {}, fin {}",
+                this.name, this.count, itemsPerSecond,
+                this.count > 0 ? format(this.firstItemAt - this.subscribedAt) : "-",
+                this.terminatedAt != 0 ? format(end - this.subscribedAt) : "-");
+        log.info("{} entre llegadas: p50={} p90={} p99={} max={}",
+                this.name,
+                format(this.interArrival.percentile(50)),
+                format(this.interArrival.percentile(90)),
+                format(this.interArrival.percentile(99)),
+                format(this.interArrival.max()));
+    }
+
+    public Subscription getSubscription() {
+        return this.subscription;
+    }
+
+    private static String format(long nanos) {
+        if (nanos < 1_000) return nanos + "ns";
+        if (nanos < 1_000_000) return String.format("%.1fµs", nanos / 1e3);
+        if (nanos < 1_000_000_000) return String.format("%.1fms", nanos / 1e6);
+        return String.format("%.2fs", nanos / 1e9);
+    }
+}
@@ -0,0 +1,235 @@
+package dev.magadiflo.app.common;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Limita cuántos elementos por segundo pasan, con un token bucket: se acumulan
+ * {@code permitsPerSecond} permisos por segundo, hasta {@code burst}, y cada elemento gasta uno.
+ * <p>
+ * No demora elementos con un timer por elemento: los permisos se convierten en demanda hacia el
+ * upstream. En cada tick (y cuando el downstream pide) se hace un único request(n) con los permisos
+ * disponibles, sin pasar la demanda del downstream, así que el upstream solo produce lo que puede
+ * pasar. El tick es una tarea periódica cada 10 ms, o más seguido (hasta 1 ms) si el bucket se
+ * llena antes y se perderían permisos; si setRate()/setBurst() cambian ese período, la tarea se
+ * vuelve a programar. El costo del timer es fijo, sin importar cuántos elementos por segundo pasen.
+ * <p>
+ * El límite se puede cambiar en cualquier momento con setRate()/setBurst(). Todos los Flux que usan
+ * limit() del mismo RateLimiter comparten el bucket; con limitByKey() cada clave tiene el suyo.
+ * Como limit() limita a través de la demanda, el upstream tiene que respetarla (Flux.generate, un
+ * Flux.create que mira requestedFromDownstream(), NameGenerator...); uno que la ignora no queda
+ * limitado. limitByKey() en cambio no frena al upstream: lo consume a su ritmo, limita cada clave
+ * por separado y lo que una clave recibe de más se descarta de su buffer (ver abajo).
+ * <pre>
+ * flux.transform(rateLimiter.limit())
+ * </pre>
+ */
+public class RateLimiter {
+
+    private static final long MIN_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long MAX_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int BUFFER_PER_KEY = 256;
+    private volatile double permitsPerSecond;
+    private volatile long burst;
+    private final Bucket bucket;
+
+    public RateLimiter(double permitsPerSecond, long burst) {
+        this.setRate(permitsPerSecond);
+        this.setBurst(burst);
+        this.bucket = new Bucket(burst);
+    }
+
+    public void setRate(double permitsPerSecond) {
+        if (!(permitsPerSecond > 0)) throw new IllegalArgumentException("permitsPerSecond debe ser mayor que 0");
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public void setBurst(long burst) {
+        if (burst <= 0) throw new IllegalArgumentException("burst debe ser mayor que 0");
+        this.burst = burst;
+    }
+
+    public double rate() {
+        return this.permitsPerSecond;
+    }
+
+    public long burst() {
+        return this.burst;
+    }
+
+    public <T> UnaryOperator<Flux<T>> limit() {
+        return flux -> this.limit(flux, this.bucket);
+    }
+
+    /**
+     * Como {@link #limitByKey(Function, int, BufferOverflowStrategy)} con 256 elementos por clave y
+     * DROP_OLDEST: una clave que va por encima de su límite pierde sus elementos más viejos, sin
+     * cortar el Flux para las demás.
+     */
+    public <T, K> UnaryOperator<Flux<T>> limitByKey(Function<? super T, ? extends K> keyFunction) {
+        return this.limitByKey(keyFunction, BUFFER_PER_KEY, BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    /**
+     * Un bucket por clave, con el rate y el burst de este RateLimiter. Usa groupBy: pensado para
+     * pocas claves (tenants, destinos...), no para una por elemento. Los buckets son de cada
+     * suscripción.
+     * <p>
+     * groupBy tiene un único prefetch para todas las claves: si una clave frenada por su bucket lo
+     * llenara, las demás avanzarían al ritmo de esa. Por eso cada clave tiene su propio buffer de
+     * {@code bufferPerKey} elementos y groupBy nunca se detiene. Cuando una clave recibe más de lo
+     * que su límite deja pasar, su buffer se llena y se aplica {@code overflow}: DROP_LATEST o
+     * DROP_OLDEST descartan solo elementos de esa clave; ERROR termina el Flux entero, para todas
+     * las claves. En este modo el upstream ya no queda limitado a través de la demanda.
+     */
+    public <T, K> UnaryOperator<Flux<T>> limitByKey(Function<? super T, ? extends K> keyFunction,
+                                                    int bufferPerKey, BufferOverflowStrategy overflow) {
+        if (bufferPerKey <= 0) throw new IllegalArgumentException("bufferPerKey debe ser mayor que 0");
+        return flux -> Flux.defer(() -> {
+            Map<K, Bucket> buckets = new ConcurrentHashMap<>();
+            return flux.groupBy(keyFunction)
+                    .flatMap(group -> this.limit(group.onBackpressureBuffer(bufferPerKey, overflow),
+                            buckets.computeIfAbsent(group.key(), key -> new Bucket(this.burst))), Integer.MAX_VALUE);
+        });
+    }
+
+    private <T> Flux<T> limit(Flux<T> flux, Bucket bucket) {
+        return Flux.create(sink -> {
+            Limited<T> limited = new Limited<>(bucket, sink);
+            flux.subscribe(limited);
+            sink.onRequest(requested -> limited.grant());
+            sink.onDispose(limited::cancel);
+        });
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        /**
+         * @param tokens los permisos iniciales: el bucket empieza lleno
+         */
+        private Bucket(long tokens) {
+            this.tokens = tokens;
+        }
+
+        /**
+         * @return cuántos permisos se entregaron, como mucho {@code max}
+         */
+        private synchronized long acquire(long max) {
+            long now = System.nanoTime();
+            double rate = RateLimiter.this.permitsPerSecond;
+            this.tokens = Math.min(RateLimiter.this.burst, this.tokens + (now - this.lastRefill) * rate / 1_000_000_000.0);
+            this.lastRefill = now;
+            long granted = Math.min(max, (long) this.tokens);
+            this.tokens -= granted;
+            return granted;
+        }
+    }
+
+    /**
+     * Medio burst: el tiempo que tarda en llenarse la mitad del bucket.
+     */
+    private long tickNanos() {
+        double nanos = this.burst * 1_000_000_000.0 / this.permitsPerSecond / 2;
+        return (long) Math.max(MIN_TICK_NANOS, Math.min(MAX_TICK_NANOS, nanos));
+    }
+
+    /**
+     * Pide al upstream solo lo que el bucket permite y el downstream todavía no tiene en camino.
+     */
+    private final class Limited<T> implements Subscriber<T> {
+        private final Bucket bucket;
+        private final FluxSink<T> sink;
+        private final AtomicLong inFlight = new AtomicLong();
+        private volatile Subscription subscription;
+        private volatile Disposable tick;
+        private volatile long tickPeriod;
+        private volatile boolean stopped;
+
+        private Limited(Bucket bucket, FluxSink<T> sink) {
+            this.bucket = bucket;
+            this.sink = sink;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            this.startTicker();
+        }
+
+        @Override
+        public void onNext(T item) {
+            this.sink.next(item);
+            this.inFlight.decrementAndGet(); // después de next(): la demanda del sink ya bajó
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.stopped = true;
+            this.stopTicker();
+            this.sink.error(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            this.stopped = true;
+            this.stopTicker();
+            this.sink.complete();
+        }
+
+        private void startTicker() {
+            if (this.stopped) return;
+            long period = RateLimiter.this.tickNanos();
+            this.tickPeriod = period;
+            this.tick = Schedulers.parallel().schedulePeriodically(this::onTick, period, period, TimeUnit.NANOSECONDS);
+            if (this.stopped) this.stopTicker(); // se detuvo mientras se programaba
+        }
+
+        /**
+         * Solo corre en el worker del tick; si setRate()/setBurst() cambiaron el período, se reprograma.
+         */
+        private void onTick() {
+            this.grant();
+            if (RateLimiter.this.tickNanos() != this.tickPeriod) {
+                this.stopTicker();
+                this.startTicker();
+            }
+        }
+
+        private synchronized void grant() {
+            Subscription subscription = this.subscription;
+            if (subscription == null || this.stopped) return;
+            long wanted = this.sink.requestedFromDownstream() - this.inFlight.get();
+            if (wanted <= 0) return;
+            long granted = this.bucket.acquire(wanted);
+            if (granted == 0) return;
+            this.inFlight.addAndGet(granted);
+            subscription.request(granted);
+        }
+
+        private void cancel() {
+            this.stopped = true;
+            this.stopTicker();
+            Subscription subscription = this.subscription;
+            if (subscription != null) subscription.cancel();
+        }
+
+        private void stopTicker() {
+            Disposable tick = this.tick;
+            if (tick != null) tick.dispose();
+        }
+    }
+}
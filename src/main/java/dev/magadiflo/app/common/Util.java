@@ -17,10 +17,46 @@ public class Util {
         return new DefaultSubscriber<>(name);
     }
 
+    /**
+     * Subscriber con demanda acotada: pide {@code prefetch} elementos y repone cuando se consume el 75%.
+     */
+    public static <T> Subscriber<T> subscriber(String name, int prefetch) {
+        return new DefaultSubscriber<>(name, prefetch, 0.75);
+    }
+
+    public static <T> Subscriber<T> subscriber(String name, int prefetch, double replenishFraction) {
+        return new DefaultSubscriber<>(name, prefetch, replenishFraction);
+    }
+
+    /**
+     * Subscriber con ventana de prefetch adaptativa según lo que tarda onNext.
+     */
+    public static <T> Subscriber<T> adaptiveSubscriber(String name, int minPrefetch, int maxPrefetch) {
+        return new DefaultSubscriber<>(name, minPrefetch, maxPrefetch, 0.75);
+    }
+
+    /**
+     * Subscriber que no registra cada elemento, sino que mide el flujo e imprime un resumen al terminar.
+     */
+    public static <T> MetricsSubscriber<T> metricsSubscriber(String name) {
+        return new MetricsSubscriber<>(name);
+    }
+
+    /**
+     * Ojo: Faker no es thread-safe. Para generar datos desde varios hilos usar {@link #fakeData()}.
+     */
     public static Faker faker() {
         return faker;
     }
 
+    /**
+     * Datos falsos thread-safe a partir de pools pre-generados. La semilla se puede fijar con
+     * -Dfakedata.seed=... para obtener ejecuciones reproducibles.
+     */
+    public static FakeData fakeData() {
+        return FakeDataHolder.FAKE_DATA;
+    }
+
     public static void sleepSeconds(long seconds) {
         try {
             Thread.sleep(Duration.ofSeconds(seconds));
@@ -28,4 +64,9 @@ public class Util {
             throw new RuntimeException(e);
         }
     }
+
+    // Los pools se generan la primera vez que alguien pide fakeData(), no al cargar Util
+    private static final class FakeDataHolder {
+        private static final FakeData FAKE_DATA = new FakeData(Long.getLong("fakedata.seed", System.nanoTime()));
+    }
 }
@@ -0,0 +1,117 @@
+package dev.magadiflo.app.pubsub;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.pubsub.publisher.EmissionExecutors;
+import dev.magadiflo.app.pubsub.publisher.PublisherImpl;
+import dev.magadiflo.app.pubsub.publisher.SubscriptionImpl;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide latencia (desde subscribe hasta el primer elemento) y throughput con 10k
+ * suscripciones concurrentes en cada modo de emisión: síncrono, un hilo virtual por
+ * drenado y un pool fijo compartido.
+ */
+public class AsyncEmissionBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncEmissionBenchmark.class);
+    private static final int SUBSCRIPTIONS = 10_000;
+    private static final long ITEMS_PER_SUBSCRIPTION = 1_000;
+    private static final int PREFETCH = 64;
+    private static final int ROUNDS = 3;
+    private static final String[] EMAILS = new String[1024];
+
+    static {
+        for (int i = 0; i < EMAILS.length; i++) {
+            EMAILS[i] = "user" + i + "@example.com";
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // Los logs por cada request arruinarían la medición
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(SubscriptionImpl.class)).setLevel(Level.WARN);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            log.info("---- ronda {} ----", round);
+            run("síncrono", null);
+            run("hilo virtual por drenado", EmissionExecutors.virtualThreadPerDrain());
+            run("pool fijo compartido", EmissionExecutors.sharedPool());
+        }
+    }
+
+    private static void run(String name, Executor executor) throws InterruptedException {
+        PublisherImpl publisher = new PublisherImpl(ITEMS_PER_SUBSCRIPTION,
+                () -> EMAILS[ThreadLocalRandom.current().nextInt(EMAILS.length)], executor);
+        CountDownLatch latch = new CountDownLatch(SUBSCRIPTIONS);
+        long[] firstItemLatencies = new long[SUBSCRIPTIONS];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SUBSCRIPTIONS; i++) {
+            publisher.subscribe(new LatencySubscriber(i, firstItemLatencies, latch));
+        }
+        if (!latch.await(2, TimeUnit.MINUTES)) {
+            log.warn("{}: no terminaron todas las suscripciones", name);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(firstItemLatencies);
+        long totalItems = SUBSCRIPTIONS * ITEMS_PER_SUBSCRIPTION;
+        log.info("{}: {} elementos en {} ms -> {} elementos/s | primer elemento p50={}µs p99={}µs max={}µs",
+                name, totalItems, elapsed / 1_000_000, totalItems * 1_000_000_000L / Math.max(elapsed, 1),
+                firstItemLatencies[SUBSCRIPTIONS / 2] / 1_000,
+                firstItemLatencies[SUBSCRIPTIONS * 99 / 100] / 1_000,
+                firstItemLatencies[SUBSCRIPTIONS - 1] / 1_000);
+    }
+
+    private static class LatencySubscriber implements Subscriber<String> {
+
+        private final int index;
+        private final long[] firstItemLatencies;
+        private final CountDownLatch latch;
+        private Subscription subscription;
+        private long subscribedAt;
+        private long received;
+
+        LatencySubscriber(int index, long[] firstItemLatencies, CountDownLatch latch) {
+            this.index = index;
+            this.firstItemLatencies = firstItemLatencies;
+            this.latch = latch;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            this.subscribedAt = System.nanoTime();
+            subscription.request(PREFETCH);
+        }
+
+        @Override
+        public void onNext(String email) {
+            if (this.received++ == 0) {
+                this.firstItemLatencies[this.index] = System.nanoTime() - this.subscribedAt;
+            }
+            if (this.received % PREFETCH == 0) {
+                this.subscription.request(PREFETCH);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            log.error("error", throwable);
+            this.latch.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            this.latch.countDown();
+        }
+    }
+}
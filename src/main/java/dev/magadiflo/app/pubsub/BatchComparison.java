@@ -0,0 +1,106 @@
+package dev.magadiflo.app.pubsub;
+
+import dev.magadiflo.app.pubsub.publisher.PublisherImpl;
+import dev.magadiflo.app.pubsub.subscriber.BatchSubscriber;
+import dev.magadiflo.app.pubsub.subscriber.Chunk;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compara la entrega elemento por elemento (onNext) con la entrega por bloques
+ * (BatchSubscriber.onNextBatch) para 1M de elementos.
+ * <p>
+ * Ambos subscribers hacen un log.debug (deshabilitado con el nivel INFO del logback.xml)
+ * para simular el costo de registrar: uno por elemento y el otro uno por bloque.
+ */
+public class BatchComparison {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchComparison.class);
+    private static final long ITEMS = 1_000_000;
+    private static final int ROUNDS = 5;
+    private static final int[] BATCH_SIZES = {16, 256, 4096};
+    private static final String[] EMAILS = new String[1024];
+
+    static {
+        for (int i = 0; i < EMAILS.length; i++) {
+            EMAILS[i] = "user" + i + "@example.com";
+        }
+    }
+
+    public static void main(String[] args) {
+        for (int round = 1; round <= ROUNDS; round++) {
+            log.info("---- ronda {} ----", round);
+            measure("por elemento", new ItemSubscriber());
+            for (int batchSize : BATCH_SIZES) {
+                measure("bloques de " + batchSize, new ChunkSubscriber(batchSize));
+            }
+        }
+    }
+
+    private static void measure(String name, CountingSubscriber subscriber) {
+        int[] index = {0};
+        PublisherImpl publisher = new PublisherImpl(ITEMS, () -> EMAILS[index[0]++ & (EMAILS.length - 1)]);
+
+        long start = System.nanoTime();
+        publisher.subscribe(subscriber);
+        long elapsed = System.nanoTime() - start;
+
+        log.info("{}: {} elementos en {} ms -> {} elementos/s (checksum {})",
+                name, subscriber.count, elapsed / 1_000_000, subscriber.count * 1_000_000_000L / Math.max(elapsed, 1), subscriber.checksum);
+    }
+
+    private abstract static class CountingSubscriber implements Subscriber<String> {
+
+        protected long count;
+        protected long checksum;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            log.error("error", throwable);
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private static class ItemSubscriber extends CountingSubscriber {
+
+        @Override
+        public void onNext(String email) {
+            log.debug("recibido: {}", email);
+            this.count++;
+            this.checksum += email.length();
+        }
+    }
+
+    private static class ChunkSubscriber extends CountingSubscriber implements BatchSubscriber<String> {
+
+        private final int batchSize;
+
+        ChunkSubscriber(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public int batchSize() {
+            return this.batchSize;
+        }
+
+        @Override
+        public void onNextBatch(Chunk<String> emails) {
+            log.debug("recibido bloque de {}", emails.size());
+            for (int i = 0; i < emails.size(); i++) {
+                this.checksum += emails.get(i).length();
+            }
+            this.count += emails.size();
+        }
+    }
+}
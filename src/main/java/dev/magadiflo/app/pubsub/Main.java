@@ -1,5 +1,7 @@
 package dev.magadiflo.app.pubsub;
 
+import dev.magadiflo.app.pubsub.publisher.EmissionExecutors;
+import dev.magadiflo.app.pubsub.publisher.MulticastPublisherImpl;
 import dev.magadiflo.app.pubsub.publisher.PublisherImpl;
 import dev.magadiflo.app.pubsub.subscriber.SubscriberImpl;
 
@@ -60,4 +62,33 @@ public class Main {
         subscriber.getSubscription().request(3);
         Thread.sleep(Duration.ofSeconds(2));
     }
+
+    // Un solo productor: ambos subscribers reciben los mismos correos, cada uno a su ritmo
+    private static void demo5() throws InterruptedException {
+        var publisher = new MulticastPublisherImpl();
+        var subscriber1 = new SubscriberImpl();
+        var subscriber2 = new SubscriberImpl();
+        publisher.subscribe(subscriber1);
+        publisher.subscribe(subscriber2);
+        subscriber1.getSubscription().request(5);
+        Thread.sleep(Duration.ofSeconds(2));
+
+        subscriber2.getSubscription().request(3);
+        Thread.sleep(Duration.ofSeconds(2));
+
+        subscriber1.getSubscription().request(5);
+        subscriber2.getSubscription().request(7);
+    }
+
+    // request solo registra la demanda; los correos se emiten en un hilo virtual (ver el nombre del hilo en el log)
+    private static void demo6() throws InterruptedException {
+        var publisher = new PublisherImpl(EmissionExecutors.virtualThreadPerDrain());
+        var subscriber = new SubscriberImpl();
+        publisher.subscribe(subscriber);
+        subscriber.getSubscription().request(3);
+        Thread.sleep(Duration.ofSeconds(2));
+
+        subscriber.getSubscription().request(7);
+        Thread.sleep(Duration.ofSeconds(2));
+    }
 }
@@ -0,0 +1,182 @@
+package dev.magadiflo.app.pubsub;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.pubsub.publisher.PublisherImpl;
+import dev.magadiflo.app.pubsub.publisher.SubscriptionImpl;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Compara el rendimiento del SubscriptionImpl actual (demanda atómica + bucle de drenado)
+ * con la implementación anterior (emisión recursiva en la pila de quien llama a request),
+ * que se conserva aquí como LegacyPublisher solo para la medición.
+ * <p>
+ * Escenarios:
+ * 1. request(10) en lotes desde fuera del subscriber.
+ * 2. request(1) re-entrante desde onNext (la versión anterior desborda la pila).
+ * 3. request(Long.MAX_VALUE) (la versión anterior responde con onError).
+ */
+public class ThroughputComparison {
+
+    private static final Logger log = LoggerFactory.getLogger(ThroughputComparison.class);
+    private static final long ITEMS = 1_000_000;
+    private static final int ROUNDS = 5;
+    private static final String[] EMAILS = new String[1024];
+
+    static {
+        for (int i = 0; i < EMAILS.length; i++) {
+            EMAILS[i] = "user" + i + "@example.com";
+        }
+    }
+
+    public static void main(String[] args) {
+        // Los logs por cada request arruinarían la medición
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(SubscriptionImpl.class)).setLevel(Level.WARN);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(LegacyPublisher.class)).setLevel(Level.WARN);
+
+        for (int round = 1; round <= ROUNDS; round++) {
+            log.info("---- ronda {} ----", round);
+            run("actual  / lotes de 10", new PublisherImpl(ITEMS, generator()), Mode.BATCHES);
+            run("anterior/ lotes de 10", new LegacyPublisher(ITEMS, generator()), Mode.BATCHES);
+            run("actual  / request(1) en onNext", new PublisherImpl(ITEMS, generator()), Mode.REENTRANT);
+            run("anterior/ request(1) en onNext", new LegacyPublisher(ITEMS, generator()), Mode.REENTRANT);
+            run("actual  / Long.MAX_VALUE", new PublisherImpl(ITEMS, generator()), Mode.UNBOUNDED);
+            run("anterior/ Long.MAX_VALUE", new LegacyPublisher(ITEMS, generator()), Mode.UNBOUNDED);
+        }
+    }
+
+    private enum Mode {BATCHES, REENTRANT, UNBOUNDED}
+
+    private static Supplier<String> generator() {
+        int[] index = {0};
+        return () -> EMAILS[index[0]++ & (EMAILS.length - 1)];
+    }
+
+    private static void run(String name, Publisher<String> publisher, Mode mode) {
+        CountingSubscriber subscriber = new CountingSubscriber(mode);
+        long start = System.nanoTime();
+        try {
+            publisher.subscribe(subscriber);
+            if (mode == Mode.BATCHES) {
+                while (!subscriber.done) {
+                    subscriber.subscription.request(10);
+                }
+            }
+        } catch (StackOverflowError e) {
+            subscriber.error.set(e);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Throwable error = subscriber.error.get();
+        if (error != null) {
+            log.info("{}: falló después de {} elementos ({})", name, subscriber.count, error.getClass().getSimpleName());
+        } else {
+            log.info("{}: {} elementos en {} ms -> {} elementos/s",
+                    name, subscriber.count, elapsed / 1_000_000, subscriber.count * 1_000_000_000L / Math.max(elapsed, 1));
+        }
+    }
+
+    private static class CountingSubscriber implements Subscriber<String> {
+
+        private final Mode mode;
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private Subscription subscription;
+        private long count;
+        private long blackhole;
+        private volatile boolean done;
+
+        CountingSubscriber(Mode mode) {
+            this.mode = mode;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            switch (this.mode) {
+                case REENTRANT -> subscription.request(1);
+                case UNBOUNDED -> subscription.request(Long.MAX_VALUE);
+                case BATCHES -> {
+                }
+            }
+        }
+
+        @Override
+        public void onNext(String email) {
+            this.count++;
+            this.blackhole += email.length();
+            if (this.mode == Mode.REENTRANT) {
+                this.subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error.set(throwable);
+            this.done = true;
+        }
+
+        @Override
+        public void onComplete() {
+            this.done = true;
+        }
+    }
+
+    /**
+     * Copia de la implementación anterior de SubscriptionImpl, parametrizada con la
+     * cantidad de elementos. Mantiene su validación: pedir más de 10 elementos es un error.
+     */
+    private static class LegacyPublisher implements Publisher<String> {
+
+        private static final Logger log = LoggerFactory.getLogger(LegacyPublisher.class);
+        private static final int MAX_REQUEST = 10;
+        private final long maxItems;
+        private final Supplier<String> generator;
+
+        LegacyPublisher(long maxItems, Supplier<String> generator) {
+            this.maxItems = maxItems;
+            this.generator = generator;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super String> subscriber) {
+            subscriber.onSubscribe(new Subscription() {
+                private boolean isCanceled;
+                private long count = 0;
+
+                @Override
+                public void request(long requested) {
+                    if (this.isCanceled) return;
+                    log.info("Es subscriber ha solicitado {} items", requested);
+
+                    if (requested > MAX_REQUEST) {
+                        subscriber.onError(new RuntimeException("Falló la validación"));
+                        this.isCanceled = true;
+                        return;
+                    }
+                    int i = 0;
+                    while (i < requested && this.count < maxItems) {
+                        this.count++;
+                        subscriber.onNext(generator.get());
+                        i++;
+                    }
+                    if (this.count == maxItems) {
+                        log.info("No hay más datos para producir");
+                        subscriber.onComplete();
+                        this.isCanceled = true;
+                    }
+                }
+
+                @Override
+                public void cancel() {
+                    this.isCanceled = true;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package dev.magadiflo.app.pubsub.publisher;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Modos de emisión asíncrona para {@link PublisherImpl}.
+ * <p>
+ * Con {@link #virtualThreadPerDrain()} cada tarea de drenado arranca un hilo virtual nuevo (como
+ * SubscriptionImpl nunca programa más de una a la vez, una suscripción no usa dos hilos al mismo
+ * tiempo, pero sí uno distinto en cada drenado), mientras que con {@link #sharedPool()} todas las
+ * suscripciones comparten unos pocos hilos de plataforma.
+ */
+public final class EmissionExecutors {
+
+    private EmissionExecutors() {
+    }
+
+    /**
+     * Cada tarea de drenado corre en un hilo virtual nuevo que termina al vaciar la demanda.
+     */
+    public static Executor virtualThreadPerDrain() {
+        ThreadFactory factory = Thread.ofVirtual().name("pubsub-virtual-", 0).factory();
+        return runnable -> factory.newThread(runnable).start();
+    }
+
+    /**
+     * Pool fijo compartido, con un hilo daemon por procesador.
+     */
+    public static Executor sharedPool() {
+        return SharedPoolHolder.POOL;
+    }
+
+    public static ExecutorService fixedPool(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pubsub-pool-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Se crea solo la primera vez que alguien lo pide
+    private static final class SharedPoolHolder {
+        private static final ExecutorService POOL = fixedPool(Runtime.getRuntime().availableProcessors());
+    }
+}
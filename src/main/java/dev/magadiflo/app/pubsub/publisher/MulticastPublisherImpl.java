@@ -0,0 +1,167 @@
+package dev.magadiflo.app.pubsub.publisher;
+
+import dev.magadiflo.app.common.Util;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Versión multicast de PublisherImpl: un solo productor alimenta a todos los subscribers.
+ * <p>
+ * Cada elemento se genera una sola vez y se guarda en un buffer circular compartido. Cada
+ * subscriber tiene su propio cursor de lectura y su propia demanda, y el productor solo puede
+ * adelantarse hasta {@code capacidad} elementos por delante del cursor más lento. Al igual que
+ * con share(), quien se suscribe tarde empieza desde el siguiente elemento que se produzca.
+ * <p>
+ * Toda la emisión ocurre en un único bucle de drenado protegido por {@code wip}, así que los
+ * cursores y el índice del productor solo los toca un hilo a la vez.
+ */
+public class MulticastPublisherImpl implements Publisher<String> {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastPublisherImpl.class);
+    private static final int DEFAULT_CAPACITY = 16;
+    private final String[] buffer;
+    private final int mask;
+    private final long maxItems;
+    private final Supplier<String> generator;
+    private final List<MulticastSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger wip = new AtomicInteger();
+    private long produced = 0;
+
+    public MulticastPublisherImpl() {
+        this(SubscriptionImpl.MAX_ITEMS, DEFAULT_CAPACITY, Util.fakeData()::email);
+    }
+
+    /**
+     * @param capacity se redondea a la siguiente potencia de 2
+     */
+    public MulticastPublisherImpl(long maxItems, int capacity, Supplier<String> generator) {
+        if (capacity <= 0) throw new IllegalArgumentException("La capacidad debe ser positiva");
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.buffer = new String[size];
+        this.mask = size - 1;
+        this.maxItems = maxItems;
+        this.generator = generator;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super String> subscriber) {
+        MulticastSubscription subscription = new MulticastSubscription(subscriber);
+        this.subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        this.drain();
+    }
+
+    private void drain() {
+        if (this.wip.getAndIncrement() != 0) return;
+
+        int missed = 1;
+        while (true) {
+            boolean progress;
+            do {
+                progress = false;
+                long slowest = Long.MAX_VALUE;
+                long wanted = this.produced;
+
+                for (MulticastSubscription s : this.subscriptions) {
+                    if (s.cursor < 0) s.cursor = this.produced; // recién suscrito
+                    if (s.emit()) progress = true;
+                    if (s.isCanceled) {
+                        this.subscriptions.remove(s);
+                        continue;
+                    }
+                    slowest = Math.min(slowest, s.cursor);
+                    wanted = Math.max(wanted, s.cursor + Math.min(s.requested.get(), this.buffer.length));
+                }
+
+                // El cursor más lento limita cuánto puede adelantarse el productor
+                if (slowest != Long.MAX_VALUE) {
+                    long limit = Math.min(Math.min(slowest + this.buffer.length, wanted), this.maxItems);
+                    while (this.produced < limit) {
+                        this.buffer[(int) (this.produced & this.mask)] = this.generator.get();
+                        this.produced++;
+                        progress = true;
+                    }
+                }
+            } while (progress);
+
+            missed = this.wip.addAndGet(-missed);
+            if (missed == 0) return;
+        }
+    }
+
+    private class MulticastSubscription implements Subscription {
+
+        private final Subscriber<? super String> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private volatile boolean isCanceled;
+        private volatile Throwable badRequest;
+        private long cursor = -1; // solo se toca dentro del bucle de drenado
+
+        MulticastSubscription(Subscriber<? super String> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long requested) {
+            if (this.isCanceled) return;
+            log.info("Es subscriber ha solicitado {} items", requested);
+
+            if (requested <= 0) {
+                this.badRequest = new IllegalArgumentException("Regla 3.9: la demanda debe ser positiva, fue " + requested);
+            } else {
+                SubscriptionImpl.addCap(this.requested, requested);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            log.info("El subscriber ha cancelado");
+            this.isCanceled = true;
+            drain(); // para liberar su cursor y no frenar al productor
+        }
+
+        /**
+         * Entrega lo que ya está en el buffer según la demanda de este subscriber.
+         *
+         * @return true si entregó al menos un elemento
+         */
+        private boolean emit() {
+            if (this.isCanceled) return false;
+            if (this.badRequest != null) {
+                this.isCanceled = true;
+                this.subscriber.onError(this.badRequest);
+                return false;
+            }
+
+            long demand = this.requested.get();
+            long emitted = 0;
+            while (emitted != demand && this.cursor != produced) {
+                if (this.isCanceled) break;
+                String item = buffer[(int) (this.cursor & mask)];
+                this.cursor++;
+                this.subscriber.onNext(item);
+                emitted++;
+            }
+            if (emitted != 0 && demand != Long.MAX_VALUE) {
+                this.requested.addAndGet(-emitted);
+            }
+
+            if (!this.isCanceled && this.cursor == maxItems) {
+                log.info("No hay más datos para producir");
+                this.isCanceled = true;
+                this.subscriber.onComplete();
+            }
+            return emitted != 0;
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package dev.magadiflo.app.pubsub.publisher;
 
+import dev.magadiflo.app.common.Util;
 import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscriber;
 
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
 /**
  * En la vida real no tenemos que hacer todas estas cosas. Esto es solo una simple
  * implementación para que entendamos esto y solo para jugar con esto nada más.
@@ -13,9 +17,44 @@ import org.reactivestreams.Subscriber;
 
 public class PublisherImpl implements Publisher<String> {
 
+    private final long maxItems;
+    private final Supplier<String> generator;
+    private final Executor executor;
+
+    public PublisherImpl() {
+        this(SubscriptionImpl.MAX_ITEMS, null, null);
+    }
+
+    /**
+     * La emisión se hace en el Executor indicado en lugar de en el hilo que llama a request.
+     * Ver {@link EmissionExecutors} para los modos incluidos.
+     */
+    public PublisherImpl(Executor executor) {
+        this(SubscriptionImpl.MAX_ITEMS, null, executor);
+    }
+
+    /**
+     * Permite indicar cuántos elementos produce cada suscripción y con qué los genera,
+     * por ejemplo, para medir el rendimiento sin el costo de Faker.
+     */
+    public PublisherImpl(long maxItems, Supplier<String> generator) {
+        this(maxItems, generator, null);
+    }
+
+    /**
+     * @param generator null para generar correos con Util.fakeData()
+     * @param executor  null para emitir de forma síncrona en el hilo que llama a request
+     */
+    public PublisherImpl(long maxItems, Supplier<String> generator, Executor executor) {
+        this.maxItems = maxItems;
+        this.generator = generator;
+        this.executor = executor;
+    }
+
     @Override
     public void subscribe(Subscriber<? super String> subscriber) {
-        SubscriptionImpl subscription = new SubscriptionImpl(subscriber);
+        Supplier<String> items = this.generator == null ? Util.fakeData()::email : this.generator;
+        SubscriptionImpl subscription = new SubscriptionImpl(subscriber, this.maxItems, items, this.executor);
         subscriber.onSubscribe(subscription);
     }
 }
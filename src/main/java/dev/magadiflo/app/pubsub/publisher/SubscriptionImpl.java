@@ -1,31 +1,76 @@
 package dev.magadiflo.app.pubsub.publisher;
 
-import com.github.javafaker.Faker;
+import dev.magadiflo.app.common.Util;
+import dev.magadiflo.app.pubsub.subscriber.BatchSubscriber;
+import dev.magadiflo.app.pubsub.subscriber.Chunk;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
 /**
  * En la vida real no tenemos que hacer todas estas cosas. Esto es solo una simple
  * implementación para que entendamos esto y solo para jugar con esto nada más.
  * En otras palabras, la clase PublisherImpl, SubscriberImpl y SubscriptionImpl, solo son
  * clases que creamos para ver cómo es que funciona la programación reactiva con la
  * especificación de Reactive Stream.
+ * <p>
+ * La demanda se acumula en un AtomicLong y la emisión se hace en un bucle de drenado
+ * (trampolín): solo el hilo que gana el contador {@code wip} emite, y las llamadas a
+ * {@code request} que llegan mientras tanto (desde otro hilo o desde dentro de onNext)
+ * solo suman demanda y el bucle la atiende sin recursión. Una demanda de Long.MAX_VALUE
+ * se trata como ilimitada y ya no se descuenta por cada elemento.
+ * <p>
+ * Si el subscriber es un {@link BatchSubscriber}, los elementos se escriben directamente en un
+ * único Chunk reutilizable y se entregan por bloques, respetando igualmente la demanda en elementos.
+ * <p>
+ * Si se indica un Executor, request solo registra la demanda y programa el bucle de drenado
+ * en ese Executor; como mucho hay una tarea de drenado en curso por suscripción.
  */
 
 public class SubscriptionImpl implements Subscription {
 
     private static final Logger log = LoggerFactory.getLogger(SubscriptionImpl.class);
-    private static final int MAX_ITEMS = 10;
-    private final Faker faker;
+    static final long MAX_ITEMS = 10;
     private final Subscriber<? super String> subscriber;
-    private boolean isCanceled;
-    private int count = 0;
+    private final BatchSubscriber<String> batchSubscriber;
+    private final Chunk<String> chunk;
+    private final Supplier<String> generator;
+    private final Executor executor;
+    private final long maxItems;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean isCanceled;
+    private volatile Throwable badRequest;
+    private long count = 0; // solo lo toca el hilo que está drenando
 
     public SubscriptionImpl(Subscriber<? super String> subscriber) {
+        this(subscriber, MAX_ITEMS, Util.fakeData()::email, null);
+    }
+
+    /**
+     * @param executor donde se ejecuta el bucle de drenado, o null para emitir en el hilo que llama a request
+     */
+    @SuppressWarnings("unchecked")
+    SubscriptionImpl(Subscriber<? super String> subscriber, long maxItems, Supplier<String> generator, Executor executor) {
         this.subscriber = subscriber;
-        this.faker = Faker.instance();
+        if (subscriber instanceof BatchSubscriber<?> batch) {
+            // Seguro: un BatchSubscriber<? super String> solo leerá Strings del chunk
+            this.batchSubscriber = (BatchSubscriber<String>) batch;
+            this.chunk = new Chunk<>(Math.max(1, batch.batchSize()));
+        } else {
+            this.batchSubscriber = null;
+            this.chunk = null;
+        }
+        this.maxItems = maxItems;
+        this.generator = generator;
+        this.executor = executor;
     }
 
     @Override
@@ -33,22 +78,14 @@ public class SubscriptionImpl implements Subscription {
         if (this.isCanceled) return;
         log.info("Es subscriber ha solicitado {} items", requested);
 
-        if (requested > MAX_ITEMS) {
-            this.subscriber.onError(new RuntimeException("Falló la validación"));
-            this.isCanceled = true;
-            return;
-        }
-        int i = 0;
-        while (i < requested && this.count < MAX_ITEMS) {
-            this.count++;
-            this.subscriber.onNext(this.faker.internet().emailAddress());
-            i++;
-        }
-        if (this.count == MAX_ITEMS) {
-            log.info("No hay más datos para producir");
-            this.subscriber.onComplete();
-            this.isCanceled = true;
+        // Regla 3.9: una demanda <= 0 debe señalizarse con onError (desde el bucle de drenado,
+        // para no solaparse con un onNext que se esté emitiendo en otro hilo)
+        if (requested <= 0) {
+            this.badRequest = new IllegalArgumentException("Regla 3.9: la demanda debe ser positiva, fue " + requested);
+        } else {
+            addCap(this.requested, requested);
         }
+        this.drain();
     }
 
     @Override
@@ -56,4 +93,83 @@ public class SubscriptionImpl implements Subscription {
         log.info("El subscriber ha cancelado");
         this.isCanceled = true;
     }
+
+    private void drain() {
+        if (this.wip.getAndIncrement() != 0) return; // otro hilo ya está emitiendo
+
+        if (this.executor == null) {
+            this.drainLoop();
+            return;
+        }
+        try {
+            this.executor.execute(this::drainLoop);
+        } catch (RejectedExecutionException e) {
+            this.isCanceled = true;
+            this.subscriber.onError(e);
+        }
+    }
+
+    private void drainLoop() {
+        int missed = 1;
+        while (true) {
+            if (this.isCanceled) return;
+            if (this.badRequest != null) {
+                this.isCanceled = true;
+                this.subscriber.onError(this.badRequest);
+                return;
+            }
+
+            long demand = this.requested.get();
+            long emitted = 0;
+
+            while (emitted != demand && this.count < this.maxItems) {
+                if (this.isCanceled) return;
+                if (this.chunk != null) {
+                    emitted += this.emitChunk(demand - emitted);
+                } else {
+                    this.count++;
+                    this.subscriber.onNext(this.generator.get());
+                    emitted++;
+                }
+            }
+
+            if (this.isCanceled) return;
+            if (this.count == this.maxItems) {
+                log.info("No hay más datos para producir");
+                this.isCanceled = true;
+                this.subscriber.onComplete();
+                return;
+            }
+
+            if (emitted != 0 && demand != Long.MAX_VALUE) {
+                this.requested.addAndGet(-emitted);
+            }
+            missed = this.wip.addAndGet(-missed);
+            if (missed == 0) return;
+        }
+    }
+
+    private int emitChunk(long demand) {
+        int size = (int) Math.min(Math.min(demand, this.maxItems - this.count), this.chunk.capacity());
+        for (int i = 0; i < size; i++) {
+            this.chunk.add(this.generator.get());
+        }
+        this.count += size;
+        this.batchSubscriber.onNextBatch(this.chunk);
+        this.chunk.clear();
+        return size;
+    }
+
+    /**
+     * Suma la demanda saturando en Long.MAX_VALUE (regla 3.17).
+     */
+    static long addCap(AtomicLong requested, long n) {
+        while (true) {
+            long current = requested.get();
+            if (current == Long.MAX_VALUE) return Long.MAX_VALUE;
+            long next = current + n;
+            if (next < 0) next = Long.MAX_VALUE;
+            if (requested.compareAndSet(current, next)) return current;
+        }
+    }
 }
@@ -0,0 +1,26 @@
+package dev.magadiflo.app.pubsub.subscriber;
+
+import org.reactivestreams.Subscriber;
+
+/**
+ * Extensión de Subscriber para recibir los elementos por bloques en lugar de uno por uno.
+ * <p>
+ * La demanda se sigue expresando en elementos: request(10) con un batchSize de 4 produce
+ * bloques de 4, 4 y 2. Un publisher que no conoce este contrato simplemente llama a onNext.
+ */
+public interface BatchSubscriber<T> extends Subscriber<T> {
+
+    /**
+     * Tamaño máximo de bloque que prefiere recibir este subscriber.
+     */
+    int batchSize();
+
+    void onNextBatch(Chunk<T> chunk);
+
+    @Override
+    default void onNext(T item) {
+        Chunk<T> chunk = new Chunk<>(1);
+        chunk.add(item);
+        this.onNextBatch(chunk);
+    }
+}
@@ -0,0 +1,48 @@
+package dev.magadiflo.app.pubsub.subscriber;
+
+import org.reactivestreams.Subscription;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Igual que SubscriberImpl, pero recibe los correos por bloques y registra un log por bloque.
+ */
+public class BatchSubscriberImpl implements BatchSubscriber<String> {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchSubscriberImpl.class);
+    private final int batchSize;
+    private Subscription subscription;
+
+    public BatchSubscriberImpl(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public int batchSize() {
+        return this.batchSize;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        this.subscription = subscription;
+    }
+
+    @Override
+    public void onNextBatch(Chunk<String> emails) {
+        log.info("recibido bloque de {}: {} .. {}", emails.size(), emails.get(0), emails.get(emails.size() - 1));
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        log.error("error", throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        log.info("¡completado!");
+    }
+
+    public Subscription getSubscription() {
+        return this.subscription;
+    }
+}
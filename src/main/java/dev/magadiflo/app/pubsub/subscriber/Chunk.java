@@ -0,0 +1,45 @@
+package dev.magadiflo.app.pubsub.subscriber;
+
+import java.util.Objects;
+
+/**
+ * Bloque de elementos respaldado por un arreglo, que la suscripción reutiliza entre entregas.
+ * <p>
+ * Solo es válido durante la llamada a {@link BatchSubscriber#onNextBatch(Chunk)}: si el
+ * subscriber necesita conservar los elementos, debe copiarlos.
+ */
+public final class Chunk<T> {
+
+    private final Object[] items;
+    private int size;
+
+    public Chunk(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("La capacidad debe ser positiva");
+        this.items = new Object[capacity];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int capacity() {
+        return this.items.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) this.items[Objects.checkIndex(index, this.size)];
+    }
+
+    public void add(T item) {
+        this.items[this.size++] = item;
+    }
+
+    public void clear() {
+        // Liberamos las referencias para no retener elementos ya entregados
+        for (int i = 0; i < this.size; i++) {
+            this.items[i] = null;
+        }
+        this.size = 0;
+    }
+}
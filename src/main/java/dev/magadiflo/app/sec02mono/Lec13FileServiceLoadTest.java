@@ -0,0 +1,92 @@
+package dev.magadiflo.app.sec02mono;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.sec02mono.assignment.AsyncFileServiceImpl;
+import dev.magadiflo.app.sec02mono.assignment.FileService;
+import dev.magadiflo.app.sec02mono.assignment.FileServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Prueba de carga: miles de write + read concurrentes, suscritos en Schedulers.parallel(),
+ * con FileServiceImpl (bloqueante) y con AsyncFileServiceImpl.
+ * <p>
+ * Se compara el tiempo total, la latencia por operación y qué hilos terminan haciendo el trabajo:
+ * con la versión bloqueante son los pocos workers de parallel() los que esperan al disco.
+ */
+public class Lec13FileServiceLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec13FileServiceLoadTest.class);
+    private static final int FILES = 5_000;
+    private static final String CONTENT = "Este es mi contenido. ".repeat(200);
+
+    public static void main(String[] args) throws IOException {
+        // Un log por archivo creado arruinaría la medición
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(FileServiceImpl.class)).setLevel(Level.WARN);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(AsyncFileServiceImpl.class)).setLevel(Level.WARN);
+
+        Path directory = Files.createTempDirectory("sec02-load");
+        try {
+            for (int round = 1; round <= 3; round++) {
+                log.info("---- ronda {} ----", round);
+                run("bloqueante", new FileServiceImpl(directory));
+                run("asíncrono ", new AsyncFileServiceImpl(directory));
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void run(String name, FileService fileService) {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        threadMXBean.resetPeakThreadCount();
+        Set<String> completionThreads = ConcurrentHashMap.newKeySet();
+        long[] latencies = new long[FILES * 2];
+        AtomicInteger index = new AtomicInteger();
+
+        long start = System.nanoTime();
+        Flux.range(0, FILES)
+                .flatMap(i -> {
+                    String fileName = "file-" + i + ".txt";
+                    return timed(fileService.write(fileName, CONTENT), latencies, index, completionThreads)
+                            .then(timed(fileService.read(fileName), latencies, index, completionThreads))
+                            .subscribeOn(Schedulers.parallel());
+                }, FILES)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+
+        int count = index.get();
+        Arrays.sort(latencies, 0, count);
+        log.info("{}: {} operaciones en {} ms | latencia p50={}µs p99={}µs max={}µs | hilos pico={} hilos que completan={}",
+                name, count, elapsed / 1_000_000,
+                latencies[count / 2] / 1_000, latencies[count * 99 / 100] / 1_000, latencies[count - 1] / 1_000,
+                threadMXBean.getPeakThreadCount(), completionThreads.size());
+    }
+
+    private static <T> Mono<T> timed(Mono<T> operation, long[] latencies, AtomicInteger index, Set<String> threads) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return operation.doFinally(signal -> {
+                latencies[index.getAndIncrement()] = System.nanoTime() - start;
+                threads.add(Thread.currentThread().getName());
+            });
+        });
+    }
+}
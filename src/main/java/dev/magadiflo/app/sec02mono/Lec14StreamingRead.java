@@ -0,0 +1,62 @@
+package dev.magadiflo.app.sec02mono;
+
+import dev.magadiflo.app.sec02mono.assignment.FileService;
+import dev.magadiflo.app.sec02mono.assignment.FileServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Lectura en streaming con ventanas mapeadas: se cuentan las líneas de un archivo de ~256MB
+ * sin que el heap usado dependa del tamaño del archivo (a diferencia de read(), que lo copia
+ * entero al heap como bytes y luego como String).
+ */
+public class Lec14StreamingRead {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec14StreamingRead.class);
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("sec02-stream");
+        Path file = directory.resolve("big.txt");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < 4_000_000; i++) {
+                writer.write("línea número " + i + " con algo de contenido de relleno.......\n");
+            }
+        }
+        log.info("Archivo de {} MB", Files.size(file) / (1024 * 1024));
+
+        FileService fileService = new FileServiceImpl(directory);
+        long[] lines = {0};
+        fileService.stream("big.txt", 8 * 1024 * 1024)
+                .doOnNext(window -> lines[0] += countNewLines(window))
+                .doOnComplete(() -> log.info("Líneas: {} | heap usado: {} MB", lines[0], usedHeapMb()))
+                .subscribe();
+
+        long[] chars = {0};
+        fileService.streamText("big.txt")
+                .doOnNext(text -> chars[0] += text.remaining())
+                .doOnComplete(() -> log.info("Caracteres: {} | heap usado: {} MB", chars[0], usedHeapMb()))
+                .subscribe();
+
+        Files.delete(file);
+        Files.delete(directory);
+    }
+
+    private static long countNewLines(ByteBuffer window) {
+        long count = 0;
+        for (int i = window.position(); i < window.limit(); i++) {
+            if (window.get(i) == '\n') count++;
+        }
+        return count;
+    }
+
+    private static long usedHeapMb() {
+        Runtime runtime = Runtime.getRuntime();
+        return (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+    }
+}
@@ -0,0 +1,36 @@
+package dev.magadiflo.app.sec02mono;
+
+import dev.magadiflo.app.common.Util;
+import dev.magadiflo.app.sec02mono.assignment.CachingFileService;
+import dev.magadiflo.app.sec02mono.assignment.FileServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.file.Path;
+
+public class Lec15CachingFileService {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec15CachingFileService.class);
+
+    public static void main(String[] args) {
+        Path directory = Path.of("src/main/resources/sec02");
+        CachingFileService fileService = new CachingFileService(new FileServiceImpl(directory), 1024 * 1024, directory);
+        String filename = "file.txt";
+
+        fileService.write(filename, "Este es mi contenido").block();
+
+        // 100 lecturas concurrentes del mismo archivo: una sola va a disco
+        Flux.range(1, 100)
+                .flatMap(i -> fileService.read(filename))
+                .blockLast();
+        log.info("{}", fileService.stats());
+
+        // La escritura invalida la entrada, la siguiente lectura vuelve a disco
+        fileService.write(filename, "Contenido actualizado").block();
+        fileService.read(filename).subscribe(Util.subscriber());
+        log.info("{}", fileService.stats());
+
+        fileService.delete(filename).block();
+    }
+}
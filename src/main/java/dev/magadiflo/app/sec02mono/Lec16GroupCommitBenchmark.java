@@ -0,0 +1,81 @@
+package dev.magadiflo.app.sec02mono;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.sec02mono.assignment.FileService;
+import dev.magadiflo.app.sec02mono.assignment.FileServiceImpl;
+import dev.magadiflo.app.sec02mono.assignment.GroupCommitWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Escrituras pequeñas con distintos niveles de concurrencia: FileServiceImpl tal cual (un
+ * Files.writeString por llamada, sin force, o sea que no es durable) contra el modo group commit
+ * (durable: el Mono termina cuando el lote ya se forzó a disco).
+ * <p>
+ * Con concurrencia 1 cada lote tiene una sola escritura y el force domina; a medida que sube la
+ * concurrencia, un mismo force cubre cada vez más escrituras.
+ */
+public class Lec16GroupCommitBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec16GroupCommitBenchmark.class);
+    private static final int WRITES = 5_000;
+    private static final int[] CONCURRENCY = {1, 16, 64, 256};
+    private static final String CONTENT = "Este es mi contenido. ".repeat(10);
+
+    public static void main(String[] args) throws IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(FileServiceImpl.class)).setLevel(Level.WARN);
+
+        Path directory = Files.createTempDirectory("sec02-group-commit");
+        try (GroupCommitWriter groupCommit = new GroupCommitWriter(directory)) {
+            FileService current = new FileServiceImpl(directory);
+            FileService grouped = new FileServiceImpl(groupCommit);
+            for (int round = 1; round <= 2; round++) {
+                log.info("---- ronda {} ----", round);
+                for (int concurrency : CONCURRENCY) {
+                    run("actual      ", current, concurrency);
+                    run("group commit", grouped, concurrency);
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void run(String name, FileService fileService, int concurrency) {
+        long[] latencies = new long[WRITES];
+        AtomicInteger index = new AtomicInteger();
+
+        long start = System.nanoTime();
+        Flux.range(0, WRITES)
+                .flatMap(i -> timed(fileService.write("file-" + (i % 512) + ".txt", CONTENT), latencies, index)
+                        .subscribeOn(Schedulers.boundedElastic()), concurrency)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+
+        int count = index.get();
+        Arrays.sort(latencies, 0, count);
+        log.info("{} | concurrencia {} | {} escrituras/s | latencia p50={}µs p99={}µs",
+                name, String.format("%3d", concurrency), count * 1_000_000_000L / elapsed,
+                latencies[count / 2] / 1_000, latencies[count * 99 / 100] / 1_000);
+    }
+
+    private static Mono<Void> timed(Mono<Void> operation, long[] latencies, AtomicInteger index) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return operation.doFinally(signal -> latencies[index.getAndIncrement()] = System.nanoTime() - start);
+        });
+    }
+}
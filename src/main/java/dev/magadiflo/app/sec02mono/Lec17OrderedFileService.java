@@ -0,0 +1,68 @@
+package dev.magadiflo.app.sec02mono;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.common.Util;
+import dev.magadiflo.app.sec02mono.assignment.FileService;
+import dev.magadiflo.app.sec02mono.assignment.FileServiceImpl;
+import dev.magadiflo.app.sec02mono.assignment.OrderedFileService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Lo mismo que Lec12Assigment, pero con OrderedFileService: write, read y delete se suscriben
+ * por separado y aun así se ejecutan en ese orden.
+ * <p>
+ * Después se mide el throughput con 1, 4, 16 y 64 archivos distintos: las operaciones de un mismo
+ * archivo van en serie, así que el throughput crece con el número de archivos.
+ */
+public class Lec17OrderedFileService {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec17OrderedFileService.class);
+    private static final int OPERATIONS = 4_000;
+    private static final String CONTENT = "Este es mi contenido. ".repeat(50);
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("sec02-ordered");
+        try {
+            FileService fileService = new OrderedFileService(new FileServiceImpl(directory));
+            String filename = "file.txt";
+
+            fileService.write(filename, "Este es mi contenido")
+                    .subscribe(Util.subscriber());
+            fileService.read(filename)
+                    .subscribe(Util.subscriber());
+            fileService.delete(filename)
+                    .subscribe(Util.subscriber());
+            Util.sleepSeconds(1);
+
+            ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(FileServiceImpl.class)).setLevel(Level.WARN);
+            for (int files : new int[]{1, 4, 16, 64}) {
+                run(fileService, files);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void run(FileService fileService, int files) {
+        long start = System.nanoTime();
+        Flux.range(0, OPERATIONS)
+                .flatMap(i -> {
+                    String fileName = "file-" + (i / 2 % files) + ".txt";
+                    return i % 2 == 0 ? fileService.write(fileName, CONTENT) : fileService.read(fileName).then();
+                }, 256)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+        log.info("{} archivos distintos: {} operaciones/s", String.format("%2d", files),
+                OPERATIONS * 1_000_000_000L / elapsed);
+    }
+}
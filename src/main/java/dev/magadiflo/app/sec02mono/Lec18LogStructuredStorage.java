@@ -0,0 +1,79 @@
+package dev.magadiflo.app.sec02mono;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.sec02mono.assignment.FileService;
+import dev.magadiflo.app.sec02mono.assignment.FileServiceImpl;
+import dev.magadiflo.app.sec02mono.assignment.LogStructuredFileService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Muchos contenidos pequeños (~100 bytes): un archivo por nombre (FileServiceImpl) contra el log
+ * de segmentos (LogStructuredFileService). Se mide write y read por segundo; después se borra la
+ * mitad, se compacta y se vuelve a abrir el log para reconstruir el índice.
+ */
+public class Lec18LogStructuredStorage {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec18LogStructuredStorage.class);
+    private static final int ENTRIES = 100_000;
+    private static final String CONTENT = "Este es mi contenido. ".repeat(5);
+
+    public static void main(String[] args) throws IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(FileServiceImpl.class)).setLevel(Level.WARN);
+
+        Path fileDirectory = Files.createTempDirectory("sec02-files");
+        Path logDirectory = Files.createTempDirectory("sec02-log");
+        try {
+            run("archivo por nombre", new FileServiceImpl(fileDirectory));
+            try (LogStructuredFileService fileService = new LogStructuredFileService(logDirectory)) {
+                run("log de segmentos  ", fileService);
+
+                Flux.range(0, ENTRIES / 2)
+                        .flatMap(i -> fileService.delete("file-" + i + ".txt").subscribeOn(Schedulers.parallel()), 64)
+                        .blockLast();
+                fileService.compact().block();
+                log.info("Después de borrar la mitad y compactar: {} valores, {} segmentos",
+                        fileService.size(), fileService.segmentCount());
+            }
+
+            long start = System.nanoTime();
+            try (LogStructuredFileService reopened = new LogStructuredFileService(logDirectory)) {
+                log.info("Índice reconstruido en {} ms: {} valores", (System.nanoTime() - start) / 1_000_000, reopened.size());
+            }
+        } finally {
+            deleteAll(fileDirectory);
+            deleteAll(logDirectory);
+        }
+    }
+
+    private static void run(String name, FileService fileService) {
+        long start = System.nanoTime();
+        Flux.range(0, ENTRIES)
+                .flatMap(i -> fileService.write("file-" + i + ".txt", CONTENT).subscribeOn(Schedulers.parallel()), 64)
+                .blockLast();
+        long writes = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Flux.range(0, ENTRIES)
+                .flatMap(i -> fileService.read("file-" + i + ".txt").subscribeOn(Schedulers.parallel()), 64)
+                .blockLast();
+        long reads = System.nanoTime() - start;
+
+        log.info("{}: {} writes/s | {} reads/s", name,
+                ENTRIES * 1_000_000_000L / writes, ENTRIES * 1_000_000_000L / reads);
+    }
+
+    private static void deleteAll(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package dev.magadiflo.app.sec02mono.assignment;
+
+import dev.magadiflo.app.common.FileException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * FileService sin bloqueos basado en AsynchronousFileChannel.
+ * <p>
+ * El Mono se completa desde el CompletionHandler de la operación de E/S, así que el hilo que
+ * se suscribe (por ejemplo un worker de parallel()) nunca espera al disco. La lectura se hace
+ * por bloques de {@code chunkSize} bytes que se van decodificando a medida que llegan.
+ * <p>
+ * NIO no tiene un delete asíncrono, por eso delete se ejecuta en boundedElastic().
+ */
+public class AsyncFileServiceImpl implements FileService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncFileServiceImpl.class);
+    private static final Path PATH = Path.of("src/main/resources/sec02");
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private final Path directory;
+    private final int chunkSize;
+
+    public AsyncFileServiceImpl() {
+        this(PATH, CHUNK_SIZE);
+    }
+
+    public AsyncFileServiceImpl(Path directory) {
+        this(directory, CHUNK_SIZE);
+    }
+
+    public AsyncFileServiceImpl(Path directory, int chunkSize) {
+        this.directory = directory;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public Mono<String> read(String fileName) {
+        return Mono.create(sink -> {
+            AsynchronousFileChannel channel;
+            try {
+                channel = AsynchronousFileChannel.open(this.directory.resolve(fileName), StandardOpenOption.READ);
+            } catch (IOException e) {
+                sink.error(new FileException("Problema al leer archivo", e));
+                return;
+            }
+            sink.onDispose(() -> closeChannel(channel));
+            new ReadHandler(channel, sink, this.chunkSize).readNext();
+        });
+    }
+
+    @Override
+    public Mono<Void> write(String fileName, String content) {
+        return Mono.create(sink -> {
+            AsynchronousFileChannel channel;
+            try {
+                channel = AsynchronousFileChannel.open(this.directory.resolve(fileName),
+                        StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException e) {
+                sink.error(new FileException("Problema al escribir en archivo", e));
+                return;
+            }
+            sink.onDispose(() -> closeChannel(channel));
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(content);
+            channel.write(buffer, 0L, 0L, new WriteHandler(channel, sink, buffer, fileName));
+        });
+    }
+
+    @Override
+    public Mono<Void> delete(String fileName) {
+        return Mono.<Void>fromRunnable(() -> this.deleteFile(fileName))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<ByteBuffer> stream(String fileName, int windowSize) {
+        return MappedFileReader.bytes(this.directory.resolve(fileName), windowSize);
+    }
+
+    @Override
+    public Flux<CharBuffer> streamText(String fileName, int windowSize) {
+        return MappedFileReader.text(this.directory.resolve(fileName), windowSize, StandardCharsets.UTF_8);
+    }
+
+    private void deleteFile(String fileName) {
+        try {
+            Files.delete(this.directory.resolve(fileName));
+            log.info("Eliminado {}", fileName);
+        } catch (IOException e) {
+            throw new FileException("Problema al eliminar archivo", e);
+        }
+    }
+
+    private static void closeChannel(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("No se pudo cerrar el archivo", e);
+        }
+    }
+
+    /**
+     * Lee el siguiente bloque al terminar el anterior, decodificando de forma incremental para
+     * no tener nunca el archivo completo en bytes y en caracteres a la vez.
+     */
+    private static class ReadHandler implements CompletionHandler<Integer, Void> {
+
+        private final AsynchronousFileChannel channel;
+        private final MonoSink<String> sink;
+        private final ByteBuffer bytes;
+        private final CharBuffer chars;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        private final StringBuilder text = new StringBuilder();
+        private long position;
+
+        ReadHandler(AsynchronousFileChannel channel, MonoSink<String> sink, int chunkSize) {
+            this.channel = channel;
+            this.sink = sink;
+            this.bytes = ByteBuffer.allocateDirect(chunkSize);
+            this.chars = CharBuffer.allocate(chunkSize);
+        }
+
+        void readNext() {
+            this.channel.read(this.bytes, this.position, null, this);
+        }
+
+        @Override
+        public void completed(Integer read, Void attachment) {
+            try {
+                boolean endOfInput = read == -1;
+                if (!endOfInput) this.position += read;
+
+                this.bytes.flip();
+                this.decode(endOfInput);
+                this.bytes.compact();
+
+                if (!endOfInput) {
+                    this.readNext();
+                    return;
+                }
+                this.flush();
+                this.sink.success(this.text.toString());
+            } catch (CharacterCodingException e) {
+                this.sink.error(new FileException("Problema al leer archivo", e));
+            }
+        }
+
+        @Override
+        public void failed(Throwable throwable, Void attachment) {
+            if (throwable instanceof AsynchronousCloseException) return; // cancelado: el canal ya se cerró
+            this.sink.error(new FileException("Problema al leer archivo", throwable));
+        }
+
+        private void decode(boolean endOfInput) throws CharacterCodingException {
+            while (true) {
+                CoderResult result = this.decoder.decode(this.bytes, this.chars, endOfInput);
+                this.drainChars();
+                if (result.isError()) result.throwException();
+                if (result.isUnderflow()) return;
+            }
+        }
+
+        private void flush() throws CharacterCodingException {
+            while (true) {
+                CoderResult result = this.decoder.flush(this.chars);
+                this.drainChars();
+                if (result.isError()) result.throwException();
+                if (result.isUnderflow()) return;
+            }
+        }
+
+        private void drainChars() {
+            this.chars.flip();
+            this.text.append(this.chars);
+            this.chars.clear();
+        }
+    }
+
+    private static class WriteHandler implements CompletionHandler<Integer, Long> {
+
+        private final AsynchronousFileChannel channel;
+        private final MonoSink<Void> sink;
+        private final ByteBuffer buffer;
+        private final String fileName;
+
+        WriteHandler(AsynchronousFileChannel channel, MonoSink<Void> sink, ByteBuffer buffer, String fileName) {
+            this.channel = channel;
+            this.sink = sink;
+            this.buffer = buffer;
+            this.fileName = fileName;
+        }
+
+        @Override
+        public void completed(Integer written, Long position) {
+            if (this.buffer.hasRemaining()) {
+                long next = position + written;
+                this.channel.write(this.buffer, next, next, this);
+                return;
+            }
+            log.info("Creado {}", this.fileName);
+            this.sink.success();
+        }
+
+        @Override
+        public void failed(Throwable throwable, Long position) {
+            if (throwable instanceof AsynchronousCloseException) return;
+            this.sink.error(new FileException("Problema al escribir en archivo", throwable));
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package dev.magadiflo.app.sec02mono.assignment;
+
+import dev.magadiflo.app.common.FileException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorador de FileService con caché de lectura.
+ * <p>
+ * - LRU acotado por peso: la suma de las longitudes de los contenidos no supera {@code maxWeight}.
+ * - Las lecturas concurrentes de un mismo archivo comparten una única lectura a disco.
+ * - write y delete hechos a través de este servicio invalidan la entrada, y una lectura que
+ * estaba en curso durante una invalidación de ese mismo archivo no se guarda en la caché. La
+ * versión se lleva por archivo (en {@code VERSION_STRIPES} contadores elegidos por hash, así la
+ * memoria no crece con los nombres escritos): escribir un archivo no afecta a las lecturas de
+ * otros, salvo que caigan en el mismo contador.
+ * - Opcionalmente, si se indica el directorio, los aciertos se validan con la fecha de modificación
+ * del archivo para detectar cambios hechos por fuera del servicio. Cada validación es un stat
+ * bloqueante en el hilo que lee; con {@code revalidateAfter} se hace como mucho una vez por
+ * entrada en ese intervalo, a cambio de que un cambio externo tarde hasta eso en verse.
+ * <p>
+ * stream y streamText no pasan por la caché.
+ */
+public class CachingFileService implements FileService {
+
+    private static final int VERSION_STRIPES = 1024;
+    private final FileService delegate;
+    private final long maxWeight;
+    private final Path directory;
+    private final long revalidateAfterNanos;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder sharedReads = new LongAdder();
+    private long weight;
+
+    public CachingFileService(FileService delegate, long maxWeight) {
+        this(delegate, maxWeight, null);
+    }
+
+    /**
+     * @param directory directorio del delegado, para validar los aciertos con la fecha de modificación
+     */
+    public CachingFileService(FileService delegate, long maxWeight, Path directory) {
+        this(delegate, maxWeight, directory, Duration.ZERO);
+    }
+
+    /**
+     * @param directory       directorio del delegado, para validar los aciertos con la fecha de modificación
+     * @param revalidateAfter tiempo durante el cual un acierto ya validado no vuelve a hacer stat
+     *                        (Duration.ZERO: validar en cada acierto)
+     */
+    public CachingFileService(FileService delegate, long maxWeight, Path directory, Duration revalidateAfter) {
+        if (revalidateAfter.isNegative()) {
+            throw new IllegalArgumentException("revalidateAfter no puede ser negativo");
+        }
+        this.delegate = delegate;
+        this.maxWeight = maxWeight;
+        this.directory = directory;
+        this.revalidateAfterNanos = revalidateAfter.toNanos();
+    }
+
+    public record Stats(long hits, long misses, long evictions, long sharedReads, int entries, long weight) {
+    }
+
+    @Override
+    public Mono<String> read(String fileName) {
+        return Mono.defer(() -> {
+            Entry entry = this.get(fileName);
+            if (entry != null && this.isFresh(fileName, entry)) {
+                this.hits.increment();
+                return Mono.just(entry.content());
+            }
+            this.misses.increment();
+            return this.load(fileName);
+        });
+    }
+
+    @Override
+    public Mono<Void> write(String fileName, String content) {
+        return this.delegate.write(fileName, content)
+                .doFirst(() -> this.invalidate(fileName))
+                .doFinally(signal -> this.invalidate(fileName));
+    }
+
+    @Override
+    public Mono<Void> delete(String fileName) {
+        return this.delegate.delete(fileName)
+                .doFirst(() -> this.invalidate(fileName))
+                .doFinally(signal -> this.invalidate(fileName));
+    }
+
+    @Override
+    public Flux<ByteBuffer> stream(String fileName, int windowSize) {
+        return this.delegate.stream(fileName, windowSize);
+    }
+
+    @Override
+    public Flux<CharBuffer> streamText(String fileName, int windowSize) {
+        return this.delegate.streamText(fileName, windowSize);
+    }
+
+    public Stats stats() {
+        synchronized (this.entries) {
+            return new Stats(this.hits.sum(), this.misses.sum(), this.evictions.sum(), this.sharedReads.sum(),
+                    this.entries.size(), this.weight);
+        }
+    }
+
+    /**
+     * Una sola lectura a disco por archivo: quien llega mientras hay una en curso se une a ella.
+     */
+    private Mono<String> load(String fileName) {
+        Mono<String> existing = this.inFlight.get(fileName);
+        if (existing != null) {
+            this.sharedReads.increment();
+            return existing;
+        }
+
+        long version = this.versions.get(stripe(fileName));
+        long checkedAt = System.nanoTime();
+        FileTime modified = this.lastModified(fileName);
+        AtomicReference<Mono<String>> self = new AtomicReference<>();
+        Mono<String> read = this.delegate.read(fileName)
+                .doOnNext(content -> this.put(fileName, new Entry(content, modified, checkedAt), version))
+                .doFinally(signal -> this.inFlight.remove(fileName, self.get()))
+                .cache();
+        self.set(read);
+
+        existing = this.inFlight.putIfAbsent(fileName, read);
+        if (existing != null) {
+            this.sharedReads.increment();
+            return existing;
+        }
+        return read;
+    }
+
+    private void invalidate(String fileName) {
+        this.inFlight.remove(fileName);
+        synchronized (this.entries) {
+            this.versions.incrementAndGet(stripe(fileName));
+            Entry removed = this.entries.remove(fileName);
+            if (removed != null) this.weight -= removed.weight();
+        }
+    }
+
+    private Entry get(String fileName) {
+        synchronized (this.entries) {
+            return this.entries.get(fileName);
+        }
+    }
+
+    /**
+     * Solo guarda si el archivo no se invalidó desde que empezó la lectura (misma versión).
+     */
+    private void put(String fileName, Entry entry, long version) {
+        if (entry.weight() > this.maxWeight) return;
+        synchronized (this.entries) {
+            if (this.versions.get(stripe(fileName)) != version) return;
+            Entry previous = this.entries.put(fileName, entry);
+            if (previous != null) this.weight -= previous.weight();
+            this.weight += entry.weight();
+
+            Iterator<Entry> eldest = this.entries.values().iterator();
+            while (this.weight > this.maxWeight && eldest.hasNext()) {
+                this.weight -= eldest.next().weight();
+                eldest.remove();
+                this.evictions.increment();
+            }
+        }
+    }
+
+    private boolean isFresh(String fileName, Entry entry) {
+        if (this.directory == null) return true;
+        long now = System.nanoTime();
+        if (this.revalidateAfterNanos > 0 && now - entry.checkedAt < this.revalidateAfterNanos) return true;
+        boolean fresh = entry.modified != null && entry.modified.equals(this.lastModified(fileName));
+        if (fresh) entry.checkedAt = now;
+        return fresh;
+    }
+
+    private FileTime lastModified(String fileName) {
+        if (this.directory == null) return null;
+        try {
+            return Files.getLastModifiedTime(this.directory.resolve(fileName));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new FileException("Problema al leer archivo", e);
+        }
+    }
+
+    private static int stripe(String fileName) {
+        int hash = fileName.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private static final class Entry {
+        private final String content;
+        private final FileTime modified;
+        // Última vez que se comprobó la fecha de modificación (System.nanoTime)
+        private volatile long checkedAt;
+
+        private Entry(String content, FileTime modified, long checkedAt) {
+            this.content = content;
+            this.modified = modified;
+            this.checkedAt = checkedAt;
+        }
+
+        String content() {
+            return this.content;
+        }
+
+        long weight() {
+            return this.content.length();
+        }
+    }
+}
@@ -1,11 +1,38 @@
 package dev.magadiflo.app.sec02mono.assignment;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+
 public interface FileService {
+
+    int DEFAULT_WINDOW_SIZE = 4 * 1024 * 1024;
+
     Mono<String> read(String fileName);
 
     Mono<Void> write(String fileName, String content);
 
     Mono<Void> delete(String fileName);
+
+    /**
+     * Lectura en streaming: una ventana de {@code windowSize} bytes por unidad de demanda.
+     * Cada buffer es una ventana propia que se puede guardar (ver {@link MappedFileReader}).
+     */
+    Flux<ByteBuffer> stream(String fileName, int windowSize);
+
+    /**
+     * Igual que {@link #stream(String, int)}, pero decodificado como UTF-8. El CharBuffer se
+     * reutiliza: solo es válido durante el onNext que lo recibe.
+     */
+    Flux<CharBuffer> streamText(String fileName, int windowSize);
+
+    default Flux<ByteBuffer> stream(String fileName) {
+        return this.stream(fileName, DEFAULT_WINDOW_SIZE);
+    }
+
+    default Flux<CharBuffer> streamText(String fileName) {
+        return this.streamText(fileName, DEFAULT_WINDOW_SIZE);
+    }
 }
@@ -3,9 +3,13 @@ package dev.magadiflo.app.sec02mono.assignment;
 import dev.magadiflo.app.common.FileException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -13,34 +17,65 @@ public class FileServiceImpl implements FileService {
 
     private static final Logger log = LoggerFactory.getLogger(FileServiceImpl.class);
     private static final Path PATH = Path.of("src/main/resources/sec02");
+    private final Path directory;
+    private final GroupCommitWriter groupCommit;
+
+    public FileServiceImpl() {
+        this(PATH);
+    }
+
+    public FileServiceImpl(Path directory) {
+        this.directory = directory;
+        this.groupCommit = null;
+    }
+
+    /**
+     * Modo group commit: write y delete se agrupan en lotes durables (ver {@link GroupCommitWriter}).
+     */
+    public FileServiceImpl(GroupCommitWriter groupCommit) {
+        this.directory = groupCommit.directory();
+        this.groupCommit = groupCommit;
+    }
 
     @Override
     public Mono<String> read(String fileName) {
-        return Mono.fromCallable(() -> Files.readString(PATH.resolve(fileName)));
+        return Mono.fromCallable(() -> Files.readString(this.directory.resolve(fileName)));
     }
 
     @Override
     public Mono<Void> write(String fileName, String content) {
+        if (this.groupCommit != null) return this.groupCommit.write(fileName, content);
         return Mono.fromRunnable(() -> this.writeFile(fileName, content));
     }
 
     @Override
     public Mono<Void> delete(String fileName) {
+        if (this.groupCommit != null) return this.groupCommit.delete(fileName);
         return Mono.fromRunnable(() -> this.deleteFile(fileName));
     }
 
     private void writeFile(String fileName, String content) {
         try {
-            Files.writeString(PATH.resolve(fileName), content);
+            Files.writeString(this.directory.resolve(fileName), content);
             log.info("Creado {}", fileName);
         } catch (IOException e) {
             throw new FileException("Problema al escribir en archivo");
         }
     }
 
+    @Override
+    public Flux<ByteBuffer> stream(String fileName, int windowSize) {
+        return MappedFileReader.bytes(this.directory.resolve(fileName), windowSize);
+    }
+
+    @Override
+    public Flux<CharBuffer> streamText(String fileName, int windowSize) {
+        return MappedFileReader.text(this.directory.resolve(fileName), windowSize, StandardCharsets.UTF_8);
+    }
+
     private void deleteFile(String fileName) {
         try {
-            Files.delete(PATH.resolve(fileName));
+            Files.delete(this.directory.resolve(fileName));
             log.info("Eliminado {}", fileName);
         } catch (IOException e) {
             throw new FileException("Problema al eliminar archivo");
@@ -0,0 +1,385 @@
+package dev.magadiflo.app.sec02mono.assignment;
+
+import dev.magadiflo.app.common.FileException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Escritura con "group commit" para FileServiceImpl.
+ * <p>
+ * Las escrituras (y eliminaciones) que llegan dentro de una ventana de tiempo, o hasta llenar un
+ * presupuesto de bytes, se agrupan en un lote. Como cada nombre es un archivo distinto, el lote se
+ * registra primero en un journal: una sola escritura con gathering I/O y un solo force por lote.
+ * Después se aplica a los archivos destino y recién entonces se completa el Mono de cada llamada.
+ * <p>
+ * Los archivos destino (y el directorio, por las altas y bajas) solo se fuerzan a disco en los
+ * checkpoints (cuando el journal supera {@code CHECKPOINT_BYTES}); hasta entonces el journal es lo
+ * que garantiza la durabilidad, y al arrancar se vuelve a aplicar lo que contenga.
+ * <p>
+ * - Antes de registrar una operación se comprueba que se podrá aplicar (que exista el directorio
+ * padre, o el archivo a eliminar); las que no pasan fallan sin llegar al journal.
+ * - Si la escritura o el force del lote fallan, el journal se trunca a donde estaba antes del
+ * lote, para que no quede un registro partido delante de los lotes siguientes.
+ * - Si aun así una operación registrada no se puede aplicar (el directorio cambió por fuera),
+ * su Mono falla y al reaplicar el journal se registra y se salta.
+ * <p>
+ * Formato de cada registro: longitud del nombre (int), longitud del contenido (int, -1 = delete),
+ * CRC32 de nombre + contenido (int), nombre, contenido.
+ */
+public class GroupCommitWriter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitWriter.class);
+    private static final String JOURNAL = ".group-commit.journal";
+    private static final int HEADER_SIZE = 12;
+    private static final long CHECKPOINT_BYTES = 64L * 1024 * 1024;
+    private static final byte[] DELETED = new byte[0];
+    private final Path directory;
+    private final long windowNanos;
+    private final int maxBatchBytes;
+    private final LinkedBlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final FileChannel journal;
+    private final Set<String> dirty = new HashSet<>(); // solo lo usa el hilo committer
+    private final Object submitLock = new Object();
+    private final Thread committer;
+    private volatile boolean closed;
+    // Un lote falló y el journal no se pudo truncar: no se registra nada más detrás del registro partido
+    private IOException journalFailure;
+
+    public GroupCommitWriter(Path directory) throws IOException {
+        this(directory, Duration.ofMillis(1), 1024 * 1024);
+    }
+
+    public GroupCommitWriter(Path directory, Duration window, int maxBatchBytes) throws IOException {
+        this.directory = directory;
+        this.windowNanos = window.toNanos();
+        this.maxBatchBytes = maxBatchBytes;
+        this.journal = FileChannel.open(directory.resolve(JOURNAL),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.recover();
+        this.committer = Thread.ofPlatform().daemon().name("group-commit").start(this::run);
+    }
+
+    public Path directory() {
+        return this.directory;
+    }
+
+    public Mono<Void> write(String fileName, String content) {
+        return this.submit(fileName, content.getBytes(StandardCharsets.UTF_8), false);
+    }
+
+    public Mono<Void> delete(String fileName) {
+        return this.submit(fileName, DELETED, true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this.submitLock) {
+            this.closed = true;
+        }
+        try {
+            this.committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Solo queda algo si el committer terminó antes de vaciar la cola (interrupción)
+        FileException error = new FileException("GroupCommitWriter cerrado");
+        Pending pending;
+        while ((pending = this.queue.poll()) != null) {
+            pending.sink().error(error);
+        }
+        this.checkpoint();
+        this.journal.close();
+    }
+
+    /**
+     * El Mono se completa en parallel() para no ejecutar el código del suscriptor en el hilo committer.
+     * Encolar y cerrar van bajo el mismo lock: lo que se encola antes de close() lo procesa el
+     * committer, y nada se encola después.
+     */
+    private Mono<Void> submit(String fileName, byte[] content, boolean delete) {
+        return Mono.<Void>create(sink -> {
+                    synchronized (this.submitLock) {
+                        if (this.closed) {
+                            sink.error(new FileException("GroupCommitWriter cerrado"));
+                            return;
+                        }
+                        this.queue.add(new Pending(fileName, fileName.getBytes(StandardCharsets.UTF_8), content, delete, sink));
+                    }
+                })
+                .publishOn(Schedulers.parallel());
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>();
+        while (!this.closed || !this.queue.isEmpty()) {
+            try {
+                Pending first = this.queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long bytes = first.size();
+                long deadline = System.nanoTime() + this.windowNanos;
+                while (bytes < this.maxBatchBytes) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? this.queue.poll(remaining, TimeUnit.NANOSECONDS) : this.queue.poll();
+                    if (next == null) break;
+                    batch.add(next);
+                    bytes += next.size();
+                }
+                this.commit(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                FileException error = new FileException("GroupCommitWriter interrumpido");
+                batch.forEach(pending -> pending.sink().error(error));
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending> received) {
+        List<Pending> batch = this.validate(received);
+        if (batch.isEmpty()) return;
+        if (this.journalFailure != null) {
+            FileException error = new FileException("Problema al escribir en archivo", this.journalFailure);
+            batch.forEach(pending -> pending.sink().error(error));
+            return;
+        }
+
+        long start;
+        try {
+            start = this.journal.position();
+        } catch (IOException e) {
+            FileException error = new FileException("Problema al escribir en archivo", e);
+            batch.forEach(pending -> pending.sink().error(error));
+            return;
+        }
+        try {
+            ByteBuffer[] buffers = new ByteBuffer[batch.size() * 3];
+            long total = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Pending pending = batch.get(i);
+                buffers[i * 3] = header(pending.name(), pending.content(), pending.delete());
+                buffers[i * 3 + 1] = ByteBuffer.wrap(pending.name());
+                buffers[i * 3 + 2] = ByteBuffer.wrap(pending.content());
+                total += pending.size();
+            }
+            while (total > 0) {
+                total -= this.journal.write(buffers);
+            }
+            this.journal.force(false);
+        } catch (IOException e) {
+            this.discardFrom(start, e);
+            FileException error = new FileException("Problema al escribir en archivo", e);
+            batch.forEach(pending -> pending.sink().error(error));
+            return;
+        }
+        log.debug("Lote de {} operaciones registrado en el journal", batch.size());
+
+        // Ya es durable: se aplica a los archivos destino, en orden de llegada
+        for (Pending pending : batch) {
+            try {
+                this.apply(pending.fileName(), pending.content(), pending.delete(), false);
+                pending.sink().success();
+            } catch (IOException e) {
+                pending.sink().error(new FileException(pending.delete() ?
+                        "Problema al eliminar archivo" : "Problema al escribir en archivo", e));
+            }
+        }
+
+        try {
+            if (this.journal.size() > CHECKPOINT_BYTES) this.checkpoint();
+        } catch (IOException e) {
+            log.warn("No se pudo hacer el checkpoint del journal", e);
+        }
+    }
+
+    /**
+     * Deja fuera del lote (con error) las operaciones que no se podrán aplicar, teniendo en cuenta
+     * las anteriores del mismo lote: un delete de un archivo que escribe una operación previa es válido.
+     */
+    private List<Pending> validate(List<Pending> received) {
+        List<Pending> batch = new ArrayList<>(received.size());
+        Map<String, Boolean> existsInBatch = new HashMap<>();
+        for (Pending pending : received) {
+            Path path = this.directory.resolve(pending.fileName());
+            if (pending.delete()) {
+                Boolean exists = existsInBatch.get(pending.fileName());
+                if (exists == null ? Files.exists(path) : exists) {
+                    existsInBatch.put(pending.fileName(), false);
+                    batch.add(pending);
+                } else {
+                    pending.sink().error(new FileException("Problema al eliminar archivo",
+                            new NoSuchFileException(path.toString())));
+                }
+            } else {
+                Path parent = path.getParent();
+                if ((parent == null || Files.isDirectory(parent)) && !Files.isDirectory(path)) {
+                    existsInBatch.put(pending.fileName(), true);
+                    batch.add(pending);
+                } else {
+                    pending.sink().error(new FileException("Problema al escribir en archivo",
+                            new NoSuchFileException(path.toString(), null, "no existe el directorio o es un directorio")));
+                }
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Quita lo que haya quedado escrito del lote fallido. Si ni eso se puede, el journal ya no es
+     * confiable y no se aceptan más lotes hasta reiniciar (la recuperación se detiene en el registro partido).
+     */
+    private void discardFrom(long start, IOException cause) {
+        try {
+            this.journal.truncate(start);
+            this.journal.position(start);
+        } catch (IOException e) {
+            e.addSuppressed(cause);
+            log.error("No se pudo truncar el journal tras un lote fallido", e);
+            this.journalFailure = e;
+        }
+    }
+
+    private void apply(String fileName, byte[] content, boolean delete, boolean replay) throws IOException {
+        Path path = this.directory.resolve(fileName);
+        if (delete) {
+            if (replay) {
+                Files.deleteIfExists(path);
+            } else {
+                Files.delete(path);
+            }
+            this.dirty.remove(fileName);
+        } else {
+            Files.write(path, content);
+            this.dirty.add(fileName);
+        }
+    }
+
+    /**
+     * Fuerza a disco los archivos modificados desde el último checkpoint y el directorio (archivos
+     * creados y eliminados), y recién entonces vacía el journal.
+     */
+    private void checkpoint() throws IOException {
+        for (String fileName : this.dirty) {
+            Path path = this.directory.resolve(fileName);
+            if (!Files.exists(path)) continue;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+        }
+        forceDirectory(this.directory);
+        this.dirty.clear();
+        this.journal.truncate(0);
+        this.journal.force(true);
+    }
+
+    /**
+     * En Windows un directorio no se puede abrir como FileChannel; ahí las entradas del directorio
+     * se persisten junto con los archivos.
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        if (System.getProperty("os.name").startsWith("Windows")) return;
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Vuelve a aplicar el journal. Se detiene en el primer registro incompleto o con CRC
+     * inválido (una escritura que no llegó a completarse antes de una caída). Una operación que
+     * falla al aplicarse ya falló para quien la pidió: se registra y se sigue con la siguiente.
+     */
+    private void recover() throws IOException {
+        long position = 0;
+        long size = this.journal.size();
+        int replayed = 0;
+        int skipped = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            this.readFully(header, position);
+            header.flip();
+            int nameLength = header.getInt();
+            int contentLength = header.getInt();
+            int crc = header.getInt();
+            boolean delete = contentLength < 0;
+            long recordSize = HEADER_SIZE + (long) nameLength + Math.max(contentLength, 0);
+            if (nameLength < 0 || position + recordSize > size) break;
+
+            ByteBuffer body = ByteBuffer.allocate((int) (recordSize - HEADER_SIZE));
+            this.readFully(body, position + HEADER_SIZE);
+            byte[] name = new byte[nameLength];
+            byte[] content = new byte[Math.max(contentLength, 0)];
+            body.flip();
+            body.get(name).get(content);
+            if (crc(name, content) != crc) break;
+
+            String fileName = new String(name, StandardCharsets.UTF_8);
+            try {
+                this.apply(fileName, content, delete, true);
+                replayed++;
+            } catch (IOException e) {
+                log.warn("Operación del journal sobre {} no aplicada", fileName, e);
+                skipped++;
+            }
+            position += recordSize;
+        }
+        if (size > 0) {
+            log.info("Journal recuperado: {} operaciones aplicadas, {} descartadas", replayed, skipped);
+            this.checkpoint();
+        }
+        this.journal.position(0);
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = this.journal.read(buffer, position + buffer.position());
+            if (read < 0) throw new IOException("Journal truncado");
+        }
+    }
+
+    private static ByteBuffer header(byte[] name, byte[] content, boolean delete) {
+        return ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(name.length)
+                .putInt(delete ? -1 : content.length)
+                .putInt(crc(name, content))
+                .flip();
+    }
+
+    private static int crc(byte[] name, byte[] content) {
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(content);
+        return (int) crc.getValue();
+    }
+
+    private record Pending(String fileName, byte[] name, byte[] content, boolean delete, MonoSink<Void> sink) {
+
+        long size() {
+            return HEADER_SIZE + this.name.length + this.content.length;
+        }
+    }
+}
@@ -0,0 +1,516 @@
+package dev.magadiflo.app.sec02mono.assignment;
+
+import dev.magadiflo.app.common.FileException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * FileService para muchos contenidos pequeños: en lugar de un archivo por nombre, todo se
+ * guarda en un log de segmentos de solo escritura al final (append-only).
+ * <p>
+ * - Un índice en memoria (nombre -> segmento, offset, longitud) resuelve cada read con una sola
+ * lectura posicional. delete agrega un registro "tombstone".
+ * - Al superar {@code maxSegmentBytes} se abre un segmento nuevo; cuando hay
+ * {@code compactionThreshold} segmentos cerrados, se compactan en segundo plano en uno solo con
+ * únicamente los valores vigentes. El segmento compactado empieza con un registro marcador
+ * (nombre vacío) que deja obsoletos a todos los de id menor, y se escribe junto con un archivo
+ * hint (nombre + posición, sin los valores) para que el arranque no tenga que leerlo entero.
+ * - Al arrancar el índice se reconstruye con los hints o recorriendo los segmentos, en orden de
+ * id; un registro incompleto o con CRC inválido marca el final de un segmento.
+ * <p>
+ * Al igual que FileServiceImpl, las escrituras no hacen force; close() sí lo hace.
+ * <p>
+ * Formato de cada registro: longitud del nombre (int), longitud del valor (int, -1 = tombstone),
+ * CRC32 de nombre + valor (int), nombre, valor.
+ */
+public class LogStructuredFileService implements FileService, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(LogStructuredFileService.class);
+    private static final int HEADER_SIZE = 12;
+    private static final int TOMBSTONE = -1;
+    private static final byte[] EMPTY = new byte[0];
+    private static final long MAX_SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final int COMPACTION_THRESHOLD = 4;
+    private final Path directory;
+    private final long maxSegmentBytes;
+    private final int compactionThreshold;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final NavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final Object writeLock = new Object();
+    private boolean closed; // solo se lee y modifica bajo writeLock
+    private volatile Segment active;
+
+    public LogStructuredFileService(Path directory) throws IOException {
+        this(directory, MAX_SEGMENT_BYTES, COMPACTION_THRESHOLD);
+    }
+
+    public LogStructuredFileService(Path directory, long maxSegmentBytes, int compactionThreshold) throws IOException {
+        this.directory = directory;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.compactionThreshold = compactionThreshold;
+        this.open();
+    }
+
+    @Override
+    public Mono<String> read(String fileName) {
+        return Mono.fromCallable(() -> new String(this.readValue(fileName), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Mono<Void> write(String fileName, String content) {
+        return Mono.fromRunnable(() -> this.append(fileName, content.getBytes(StandardCharsets.UTF_8), false));
+    }
+
+    @Override
+    public Mono<Void> delete(String fileName) {
+        return Mono.fromRunnable(() -> this.append(fileName, EMPTY, true));
+    }
+
+    /**
+     * Los valores son pequeños: se leen enteros y se entregan en ventanas de {@code windowSize}.
+     */
+    @Override
+    public Flux<ByteBuffer> stream(String fileName, int windowSize) {
+        return Mono.fromCallable(() -> ByteBuffer.wrap(this.readValue(fileName)))
+                .flatMapMany(value -> Flux.range(0, (value.capacity() + windowSize - 1) / windowSize)
+                        .map(i -> value.slice(i * windowSize, Math.min(windowSize, value.capacity() - i * windowSize))));
+    }
+
+    @Override
+    public Flux<CharBuffer> streamText(String fileName, int windowSize) {
+        return this.read(fileName)
+                .map(CharBuffer::wrap)
+                .flatMapMany(text -> Flux.range(0, (text.length() + windowSize - 1) / windowSize)
+                        .map(i -> text.subSequence(i * windowSize, Math.min(text.length(), (i + 1) * windowSize))));
+    }
+
+    /**
+     * Compacta ahora los segmentos cerrados. Si ya hay una compactación en curso no hace nada.
+     */
+    public Mono<Void> compact() {
+        return Mono.fromRunnable(() -> {
+            if (this.compacting.compareAndSet(false, true)) this.runCompaction();
+        });
+    }
+
+    public int size() {
+        return this.index.size();
+    }
+
+    public int segmentCount() {
+        return this.segments.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this.writeLock) {
+            if (this.closed) return;
+            this.closed = true;
+            this.active.channel().force(true);
+            for (Segment segment : this.segments.values()) {
+                segment.retire();
+            }
+        }
+    }
+
+    private byte[] readValue(String fileName) throws IOException {
+        while (true) {
+            Location location = this.index.get(fileName);
+            if (location == null) throw new NoSuchFileException(fileName);
+            Segment segment = location.segment();
+            FileChannel channel = segment.channel();
+            ByteBuffer value = ByteBuffer.allocate(location.length());
+            try {
+                while (value.hasRemaining()) {
+                    if (channel.read(value, location.offset() + value.position()) < 0) {
+                        throw new EOFException("Segmento " + segment.id + " truncado");
+                    }
+                }
+                return value.array();
+            } catch (ClosedByInterruptException e) {
+                segment.reopen(channel);
+                throw e;
+            } catch (ClosedChannelException e) {
+                // Cerrado por una compactación (el índice ya apunta al segmento nuevo) o por la
+                // interrupción de otro hilo (se reabre): en ambos casos se vuelve a intentar
+                if (segment.retired && this.index.get(fileName) == location) throw e; // servicio cerrado
+                segment.reopen(channel);
+            }
+        }
+    }
+
+    private void append(String fileName, byte[] value, boolean delete) {
+        byte[] name = fileName.getBytes(StandardCharsets.UTF_8);
+        if (name.length == 0) throw new FileException("El nombre de archivo no puede estar vacío");
+        ByteBuffer record = record(name, value, delete);
+        boolean rolled = false;
+        synchronized (this.writeLock) {
+            if (this.closed) throw new FileException("LogStructuredFileService cerrado");
+            if (delete && !this.index.containsKey(fileName)) {
+                throw new FileException("Problema al eliminar archivo", new NoSuchFileException(fileName));
+            }
+            Segment segment = this.active;
+            long position = segment.size;
+            try {
+                writeFully(segment, record, position);
+                segment.size += record.capacity();
+                if (delete) {
+                    this.index.remove(fileName);
+                } else {
+                    this.index.put(fileName, new Location(segment, position + HEADER_SIZE + name.length, value.length));
+                }
+                if (segment.size >= this.maxSegmentBytes) {
+                    this.active = this.createSegment(segment.id + 1);
+                    rolled = true;
+                }
+            } catch (IOException e) {
+                throw new FileException(delete ? "Problema al eliminar archivo" : "Problema al escribir en archivo", e);
+            }
+        }
+        log.debug("{} {}", delete ? "Eliminado" : "Creado", fileName);
+        if (rolled) this.scheduleCompaction();
+    }
+
+    private void scheduleCompaction() {
+        int closed = this.segments.headMap(this.active.id).size();
+        if (closed < this.compactionThreshold || !this.compacting.compareAndSet(false, true)) return;
+        Schedulers.boundedElastic().schedule(this::runCompaction);
+    }
+
+    private void runCompaction() {
+        try {
+            this.compactClosedSegments();
+        } catch (IOException e) {
+            log.warn("No se pudo compactar", e);
+        } finally {
+            this.compacting.set(false);
+        }
+    }
+
+    /**
+     * Copia los valores vigentes de todos los segmentos cerrados a uno nuevo que toma el id del
+     * más reciente de ellos (sigue siendo menor que el del segmento activo, así que en el arranque
+     * las escrituras posteriores se siguen aplicando después).
+     */
+    private void compactClosedSegments() throws IOException {
+        List<Segment> merged = new ArrayList<>(this.segments.headMap(this.active.id).values());
+        if (merged.isEmpty()) return;
+        int id = merged.get(merged.size() - 1).id;
+        Path temp = this.directory.resolve("segment-%08d.compact".formatted(id));
+        List<Moved> moved = new ArrayList<>();
+
+        FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size;
+        try {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+            ByteBuffer marker = record(EMPTY, EMPTY, false);
+            out.write(marker.array());
+            long[] position = {marker.capacity()};
+            for (Segment segment : merged) {
+                readRecords(segment.path, (offset, name, value, valueLength) -> {
+                    if (name.length == 0) return; // marcador de una compactación anterior
+                    String fileName = new String(name, StandardCharsets.UTF_8);
+                    Location current = this.index.get(fileName);
+                    long valueOffset = offset + HEADER_SIZE + name.length;
+                    if (current == null || current.segment() != segment || current.offset() != valueOffset) return;
+
+                    ByteBuffer record = record(name, value, false);
+                    out.write(record.array());
+                    moved.add(new Moved(fileName, current, position[0] + HEADER_SIZE + name.length));
+                    position[0] += record.capacity();
+                });
+            }
+            out.flush();
+            channel.force(true);
+            size = position[0];
+        } catch (IOException e) {
+            channel.close();
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Path path = this.segmentPath(id);
+        Segment compacted = new Segment(id, path, channel);
+        compacted.size = size;
+        Files.deleteIfExists(this.hintPath(id));
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        this.segments.put(id, compacted);
+        for (Moved entry : moved) {
+            Location location = new Location(compacted, entry.offset(), entry.previous().length());
+            this.index.replace(entry.fileName(), entry.previous(), location); // si hubo una escritura posterior, gana esa
+        }
+        for (Segment segment : merged) {
+            if (segment.id != id) {
+                this.segments.remove(segment.id);
+                Files.deleteIfExists(segment.path);
+                Files.deleteIfExists(this.hintPath(segment.id));
+            }
+            segment.retire();
+        }
+        this.writeHint(compacted, moved);
+        log.info("Compactados {} segmentos en el segmento {}: {} valores vigentes, {} KB",
+                merged.size(), id, moved.size(), size / 1024);
+    }
+
+    private void open() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "segment-*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".compact") || name.endsWith(".tmp")) {
+                    Files.delete(file); // compactación interrumpida: los segmentos originales siguen intactos
+                } else if (name.endsWith(".log")) {
+                    ids.add(Integer.parseInt(name.substring("segment-".length(), name.length() - ".log".length())));
+                }
+            }
+        }
+        Collections.sort(ids);
+
+        // Un segmento compactado reemplaza a todos los anteriores (quedan si la compactación se cortó al borrarlos)
+        int floor = 0;
+        for (int i = ids.size() - 1; i >= 0; i--) {
+            if (startsWithMarker(this.segmentPath(ids.get(i)))) {
+                floor = ids.get(i);
+                break;
+            }
+        }
+
+        for (int id : ids) {
+            if (id < floor) {
+                Files.deleteIfExists(this.segmentPath(id));
+                Files.deleteIfExists(this.hintPath(id));
+                continue;
+            }
+            Path path = this.segmentPath(id);
+            Segment segment = new Segment(id, path, FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE));
+            this.segments.put(id, segment);
+            if (!this.loadHint(segment)) this.scan(segment);
+        }
+        this.active = this.createSegment(ids.isEmpty() ? 1 : ids.get(ids.size() - 1) + 1);
+        log.info("Abierto {}: {} valores en {} segmentos", this.directory, this.index.size(), this.segments.size());
+    }
+
+    private void scan(Segment segment) throws IOException {
+        long valid = readRecords(segment.path, (offset, name, value, valueLength) -> {
+            if (name.length == 0) return;
+            String fileName = new String(name, StandardCharsets.UTF_8);
+            if (valueLength == TOMBSTONE) {
+                this.index.remove(fileName);
+            } else {
+                this.index.put(fileName, new Location(segment, offset + HEADER_SIZE + name.length, valueLength));
+            }
+        });
+        long size = segment.channel().size();
+        if (valid < size) {
+            log.warn("Segmento {}: se descartan {} bytes de un registro incompleto", segment.id, size - valid);
+            segment.channel().truncate(valid);
+        }
+        segment.size = valid;
+    }
+
+    /**
+     * El hint solo es válido si el segmento tiene el tamaño con el que se escribió.
+     */
+    private boolean loadHint(Segment segment) throws IOException {
+        Path hint = this.hintPath(segment.id);
+        if (!Files.exists(hint)) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(hint), 64 * 1024))) {
+            long size = in.readLong();
+            if (size != segment.channel().size()) return false;
+            while (true) {
+                int nameLength;
+                try {
+                    nameLength = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int valueLength = in.readInt();
+                long offset = in.readLong();
+                byte[] name = new byte[nameLength];
+                in.readFully(name);
+                this.index.put(new String(name, StandardCharsets.UTF_8), new Location(segment, offset, valueLength));
+            }
+            segment.size = size;
+            return true;
+        }
+    }
+
+    private void writeHint(Segment segment, List<Moved> entries) throws IOException {
+        Path temp = this.directory.resolve("segment-%08d.hint.tmp".formatted(segment.id));
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+            out.writeLong(segment.size);
+            for (Moved entry : entries) {
+                byte[] name = entry.fileName().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(name.length);
+                out.writeInt(entry.previous().length());
+                out.writeLong(entry.offset());
+                out.write(name);
+            }
+        }
+        Files.move(temp, this.hintPath(segment.id), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Segment createSegment(int id) throws IOException {
+        Path path = this.segmentPath(id);
+        Segment segment = new Segment(id, path, FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        this.segments.put(id, segment);
+        return segment;
+    }
+
+    private Path segmentPath(int id) {
+        return this.directory.resolve("segment-%08d.log".formatted(id));
+    }
+
+    private Path hintPath(int id) {
+        return this.directory.resolve("segment-%08d.hint".formatted(id));
+    }
+
+    private static boolean startsWithMarker(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            return in.readInt() == 0 && in.readInt() == 0;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Recorre los registros válidos y devuelve hasta qué posición llegan.
+     */
+    private static long readRecords(Path path, RecordVisitor visitor) throws IOException {
+        long size = Files.size(path);
+        long position = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 64 * 1024))) {
+            while (position + HEADER_SIZE <= size) {
+                int nameLength = in.readInt();
+                int valueLength = in.readInt();
+                int crc = in.readInt();
+                long recordSize = HEADER_SIZE + (long) nameLength + Math.max(valueLength, 0);
+                if (nameLength < 0 || valueLength < TOMBSTONE || position + recordSize > size) break;
+
+                byte[] name = new byte[nameLength];
+                byte[] value = valueLength > 0 ? new byte[valueLength] : EMPTY;
+                in.readFully(name);
+                in.readFully(value);
+                if (crc(name, value) != crc) break;
+
+                visitor.accept(position, name, value, valueLength);
+                position += recordSize;
+            }
+        }
+        return position;
+    }
+
+    private static void writeFully(Segment segment, ByteBuffer record, long position) throws IOException {
+        while (record.hasRemaining()) {
+            FileChannel channel = segment.channel();
+            try {
+                channel.write(record, position + record.position());
+            } catch (ClosedByInterruptException e) {
+                segment.reopen(channel);
+                throw e;
+            } catch (ClosedChannelException e) {
+                // Un segmento retirado no se reabre: reintentar sobre el mismo canal no terminaría nunca
+                if (segment.retired) throw e;
+                segment.reopen(channel);
+            }
+        }
+    }
+
+    private static ByteBuffer record(byte[] name, byte[] value, boolean delete) {
+        return ByteBuffer.allocate(HEADER_SIZE + name.length + value.length)
+                .putInt(name.length)
+                .putInt(delete ? TOMBSTONE : value.length)
+                .putInt(crc(name, value))
+                .put(name)
+                .put(value)
+                .flip();
+    }
+
+    private static int crc(byte[] name, byte[] value) {
+        CRC32 crc = new CRC32();
+        crc.update(name);
+        crc.update(value);
+        return (int) crc.getValue();
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void accept(long position, byte[] name, byte[] value, int valueLength) throws IOException;
+    }
+
+    private record Location(Segment segment, long offset, int length) {
+    }
+
+    private record Moved(String fileName, Location previous, long offset) {
+    }
+
+    /**
+     * Un FileChannel se cierra para todos si se interrumpe a un hilo que lo está usando;
+     * reopen() lo vuelve a abrir salvo que el segmento ya se haya retirado por una compactación.
+     */
+    private static class Segment {
+
+        private final int id;
+        private final Path path;
+        private volatile FileChannel channel;
+        private volatile boolean retired;
+        private long size; // solo se modifica bajo writeLock (o antes de publicar el segmento)
+
+        Segment(int id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+
+        FileChannel channel() {
+            return this.channel;
+        }
+
+        synchronized void reopen(FileChannel closed) throws IOException {
+            if (this.retired || this.channel != closed || closed.isOpen()) return;
+            this.channel = FileChannel.open(this.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        synchronized void retire() throws IOException {
+            this.retired = true;
+            this.channel.close();
+        }
+    }
+}
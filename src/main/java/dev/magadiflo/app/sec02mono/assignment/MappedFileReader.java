@@ -0,0 +1,178 @@
+package dev.magadiflo.app.sec02mono.assignment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Lectura por ventanas mapeadas en memoria con FileChannel.map, usando Flux.generate: se mapea
+ * una ventana por cada unidad de demanda, así que el heap no crece con el tamaño del archivo.
+ * <p>
+ * Cada ventana de {@link #bytes(Path, int)} es un buffer nuevo que el consumidor puede guardar o
+ * encolar. Los mapeos NO se liberan de forma determinista: no hay forma estándar de desmapear sin
+ * arriesgar que alguien lea memoria ya liberada, así que cada mapeo vive hasta que el GC recolecta
+ * su buffer, aunque el Flux ya haya completado o se haya cancelado. Al terminar solo se cierra el
+ * archivo; las ventanas ya emitidas siguen siendo legibles.
+ * <p>
+ * En cambio, el CharBuffer de {@link #text(Path, int, Charset)} se reutiliza y solo es válido
+ * durante el onNext que lo recibe: si hay que guardarlo o encolarlo, copiarlo antes.
+ */
+public final class MappedFileReader {
+
+    private static final Logger log = LoggerFactory.getLogger(MappedFileReader.class);
+
+    private MappedFileReader() {
+    }
+
+    public static Flux<ByteBuffer> bytes(Path path, int windowSize) {
+        checkWindowSize(windowSize);
+        return Flux.generate(
+                () -> new MappedState(path),
+                (MappedState state, SynchronousSink<ByteBuffer> sink) -> {
+                    try {
+                        ByteBuffer window = state.nextWindow(windowSize);
+                        if (window == null) {
+                            sink.complete();
+                        } else {
+                            sink.next(window);
+                        }
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                    return state;
+                },
+                MappedState::close
+        );
+    }
+
+    /**
+     * Igual que {@link #bytes(Path, int)} pero decodificando cada ventana. Los caracteres
+     * que quedan partidos entre dos ventanas se completan con los bytes de la siguiente.
+     * El CharBuffer emitido se reutiliza en cada onNext.
+     */
+    public static Flux<CharBuffer> text(Path path, int windowSize, Charset charset) {
+        checkWindowSize(windowSize);
+        return Flux.generate(
+                () -> new TextState(path, charset, windowSize),
+                (TextState state, SynchronousSink<CharBuffer> sink) -> {
+                    try {
+                        CharBuffer chars = state.nextChars(windowSize);
+                        if (chars == null) {
+                            sink.complete();
+                        } else {
+                            sink.next(chars);
+                        }
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                    return state;
+                },
+                MappedState::close
+        );
+    }
+
+    private static void checkWindowSize(int windowSize) {
+        if (windowSize <= 0) throw new IllegalArgumentException("El tamaño de ventana debe ser positivo");
+    }
+
+    private static class MappedState {
+
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+
+        MappedState(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = this.channel.size();
+        }
+
+        /**
+         * @return la siguiente ventana o null si ya no quedan bytes
+         */
+        MappedByteBuffer nextWindow(int windowSize) throws IOException {
+            if (this.position >= this.size) return null;
+
+            long length = Math.min(windowSize, this.size - this.position);
+            MappedByteBuffer window = this.channel.map(FileChannel.MapMode.READ_ONLY, this.position, length);
+            this.position += length;
+            return window;
+        }
+
+        boolean isLastWindow() {
+            return this.position >= this.size;
+        }
+
+        void close() {
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                log.warn("No se pudo cerrar el archivo", e);
+            }
+        }
+    }
+
+    private static class TextState extends MappedState {
+
+        private final CharsetDecoder decoder;
+        private final CharBuffer chars;
+        // Bytes de un carácter que quedó partido al final de la ventana anterior (modo lectura)
+        private final ByteBuffer carry = ByteBuffer.allocate(16).flip();
+        private boolean finished;
+
+        TextState(Path path, Charset charset, int windowSize) throws IOException {
+            super(path);
+            this.decoder = charset.newDecoder();
+            this.chars = CharBuffer.allocate((int) Math.ceil(windowSize * (double) this.decoder.maxCharsPerByte()) + 16);
+        }
+
+        CharBuffer nextChars(int windowSize) throws IOException {
+            if (this.finished) return null;
+            ByteBuffer window = this.nextWindow(windowSize);
+            if (window == null) { // archivo vacío
+                this.finished = true;
+                return null;
+            }
+            boolean endOfInput = this.isLastWindow();
+            this.chars.clear();
+
+            this.completeCarry(window);
+            if (endOfInput && this.carry.hasRemaining()) {
+                check(this.decoder.decode(this.carry, this.chars, true));
+            }
+            check(this.decoder.decode(window, this.chars, endOfInput));
+            if (window.hasRemaining()) {
+                this.carry.compact().put(window).flip();
+            }
+            if (endOfInput) {
+                check(this.decoder.flush(this.chars));
+                this.finished = true;
+            }
+            return this.chars.flip();
+        }
+
+        private void completeCarry(ByteBuffer window) throws CharacterCodingException {
+            while (this.carry.hasRemaining() && window.hasRemaining()) {
+                this.carry.compact().put(window.get()).flip();
+                check(this.decoder.decode(this.carry, this.chars, false));
+            }
+        }
+
+        private static void check(CoderResult result) throws CharacterCodingException {
+            if (result.isError()) result.throwException();
+            if (result.isOverflow()) throw new IllegalStateException("CharBuffer insuficiente para la ventana");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package dev.magadiflo.app.sec02mono.assignment;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decorador de FileService que ordena las operaciones por archivo.
+ * <p>
+ * Las operaciones sobre un mismo archivo se ejecutan de una en una, en el orden en que se
+ * suscribieron: un read suscrito después de un write ve lo escrito. Las operaciones sobre
+ * archivos distintos corren en paralelo en {@code scheduler} (por defecto boundedElastic(),
+ * porque FileServiceImpl bloquea).
+ * <p>
+ * Cada archivo con operaciones pendientes tiene una cola (Lane) que se elimina de la tabla en
+ * cuanto se vacía, así que la tabla solo crece con los archivos que están en uso en ese momento.
+ * En stream y streamText el archivo queda tomado hasta que el Flux termina o se cancela.
+ */
+public class OrderedFileService implements FileService {
+
+    private final FileService delegate;
+    private final Scheduler scheduler;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public OrderedFileService(FileService delegate) {
+        this(delegate, Schedulers.boundedElastic());
+    }
+
+    public OrderedFileService(FileService delegate, Scheduler scheduler) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public Mono<String> read(String fileName) {
+        return this.acquire(fileName)
+                .flatMap(release -> this.delegate.read(fileName).doFinally(signal -> release.run()));
+    }
+
+    @Override
+    public Mono<Void> write(String fileName, String content) {
+        return this.acquire(fileName)
+                .flatMap(release -> this.delegate.write(fileName, content).doFinally(signal -> release.run()));
+    }
+
+    @Override
+    public Mono<Void> delete(String fileName) {
+        return this.acquire(fileName)
+                .flatMap(release -> this.delegate.delete(fileName).doFinally(signal -> release.run()));
+    }
+
+    @Override
+    public Flux<ByteBuffer> stream(String fileName, int windowSize) {
+        return this.acquire(fileName)
+                .flatMapMany(release -> this.delegate.stream(fileName, windowSize).doFinally(signal -> release.run()));
+    }
+
+    @Override
+    public Flux<CharBuffer> streamText(String fileName, int windowSize) {
+        return this.acquire(fileName)
+                .flatMapMany(release -> this.delegate.streamText(fileName, windowSize).doFinally(signal -> release.run()));
+    }
+
+    /**
+     * Número de archivos con operaciones pendientes o en curso.
+     */
+    public int activeFiles() {
+        return this.lanes.size();
+    }
+
+    /**
+     * Emite, cuando le llega el turno, la acción que libera el archivo para la siguiente operación.
+     */
+    private Mono<Runnable> acquire(String fileName) {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink, () -> this.advance(fileName));
+            sink.onCancel(waiter::cancel);
+            this.enqueue(fileName, waiter);
+        });
+    }
+
+    private void enqueue(String fileName, Waiter waiter) {
+        boolean[] first = {false};
+        this.lanes.compute(fileName, (key, lane) -> {
+            if (lane == null) lane = new Lane();
+            lane.waiters.add(waiter);
+            first[0] = lane.waiters.size() == 1;
+            return lane;
+        });
+        if (first[0]) waiter.grant();
+    }
+
+    /**
+     * Saca la operación terminada (la cabeza de la cola) y da el turno a la siguiente.
+     * Si no queda ninguna, la cola se elimina de la tabla.
+     */
+    private void advance(String fileName) {
+        Waiter[] next = {null};
+        this.lanes.compute(fileName, (key, lane) -> {
+            lane.waiters.poll();
+            next[0] = lane.waiters.peek();
+            return next[0] == null ? null : lane;
+        });
+        if (next[0] != null) next[0].grant();
+    }
+
+    /**
+     * Solo se modifica dentro de compute(), que ya serializa los accesos por clave.
+     */
+    private static class Lane {
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    }
+
+    private class Waiter {
+
+        private static final int WAITING = 0;
+        private static final int GRANTED = 1;
+        private static final int CANCELED = 2;
+
+        private final MonoSink<Runnable> sink;
+        private final Runnable release;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        Waiter(MonoSink<Runnable> sink, Runnable advance) {
+            this.sink = sink;
+            AtomicBoolean released = new AtomicBoolean();
+            this.release = () -> {
+                if (released.compareAndSet(false, true)) advance.run();
+            };
+        }
+
+        /**
+         * Se entrega en el scheduler: la operación arranca en un hilo del pool y no en el que
+         * terminó la anterior, así no se encadenan operaciones en la pila de un mismo hilo.
+         */
+        void grant() {
+            OrderedFileService.this.scheduler.schedule(() -> {
+                if (this.state.compareAndSet(WAITING, GRANTED)) {
+                    this.sink.success(this.release);
+                } else {
+                    this.release.run(); // cancelado mientras esperaba: pasa el turno
+                }
+            });
+        }
+
+        void cancel() {
+            // Si ya tenía el turno, la operación puede no haber llegado a suscribirse; release es idempotente
+            if (this.state.getAndSet(CANCELED) == GRANTED) this.release.run();
+        }
+    }
+}
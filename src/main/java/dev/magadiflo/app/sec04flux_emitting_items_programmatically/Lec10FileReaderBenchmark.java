@@ -0,0 +1,60 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderService;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Throughput de lectura por líneas de un archivo de ~200MB:
+ * - BufferedReader.readLine (FileReaderServiceImpl original, sin el log por línea)
+ * - LineSplitter decodificando cada línea a String
+ * - LineSplitter emitiendo las líneas como bytes, sin decodificar
+ */
+public class Lec10FileReaderBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec10FileReaderBenchmark.class);
+    private static final int LINES = 3_000_000;
+
+    public static void main(String[] args) throws IOException {
+        // Con el log por línea el resultado solo mediría el logging
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(FileReaderServiceImpl.class)).setLevel(Level.WARN);
+
+        Path path = Files.createTempFile("sec04-lines", ".txt");
+        try {
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                for (int i = 0; i < LINES; i++) {
+                    writer.write("2024-01-01T00:00:00 INFO línea número " + i + " con algo de contenido de relleno\n");
+                }
+            }
+            long size = Files.size(path);
+            log.info("Archivo de {} MB", size / (1024 * 1024));
+
+            FileReaderService bufferedReader = new FileReaderServiceImpl();
+            FileReaderService splitter = new FileReaderServiceImpl(1024 * 1024);
+            for (int round = 1; round <= 3; round++) {
+                log.info("---- ronda {} ----", round);
+                run("BufferedReader      ", bufferedReader.read(path), size);
+                run("LineSplitter        ", splitter.read(path), size);
+                run("LineSplitter (bytes)", splitter.readLines(path), size);
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private static void run(String name, Flux<?> lines, long size) {
+        long start = System.nanoTime();
+        Long count = lines.count().block();
+        long elapsed = System.nanoTime() - start;
+        log.info("{}: {} líneas en {} ms | {} MB/s", name, count, elapsed / 1_000_000,
+                size * 1_000 / elapsed);
+    }
+}
@@ -0,0 +1,60 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderService;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Lectura por rangos en paralelo: líneas por segundo con 1, 2, 4, ... rails (hasta el número
+ * de núcleos), con y sin reordenar las líneas. Se compara con la lectura secuencial.
+ */
+public class Lec11ParallelFileReader {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec11ParallelFileReader.class);
+    private static final int LINES = 3_000_000;
+
+    public static void main(String[] args) throws IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(FileReaderServiceImpl.class)).setLevel(Level.WARN);
+
+        Path path = Files.createTempFile("sec04-parallel", ".txt");
+        try {
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                for (int i = 0; i < LINES; i++) {
+                    writer.write("2024-01-01T00:00:00 INFO línea número " + i + " con algo de contenido de relleno\n");
+                }
+            }
+
+            FileReaderService fileReaderService = new FileReaderServiceImpl(1024 * 1024);
+            Scheduler scheduler = Schedulers.parallel();
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (int round = 1; round <= 2; round++) {
+                log.info("---- ronda {} ({} núcleos) ----", round, cores);
+                run("secuencial       ", 1, fileReaderService.read(path));
+                for (int parallelism = 2; parallelism <= cores; parallelism *= 2) {
+                    run("paralelo         ", parallelism, fileReaderService.readParallel(path, parallelism, scheduler).sequential());
+                    run("paralelo ordenado", parallelism, fileReaderService.readOrdered(path, parallelism, scheduler));
+                }
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private static void run(String name, int parallelism, Flux<String> lines) {
+        long start = System.nanoTime();
+        Long count = lines.count().block();
+        long elapsed = System.nanoTime() - start;
+        log.info("{} x{}: {} líneas en {} ms | {} líneas/s", name, parallelism, count, elapsed / 1_000_000,
+                count * 1_000_000_000L / elapsed);
+    }
+}
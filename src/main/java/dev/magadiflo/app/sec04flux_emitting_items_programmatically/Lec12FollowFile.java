@@ -0,0 +1,44 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically;
+
+import dev.magadiflo.app.common.Util;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderService;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderServiceImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * Modo follow: el Flux no se completa al final del archivo. Mientras tanto, otro "proceso" agrega
+ * líneas, trunca el archivo y lo rota (lo renombra y crea uno nuevo con el mismo nombre).
+ * Con take(8) el suscriptor cancela y el archivo se cierra.
+ */
+public class Lec12FollowFile {
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("sec04-follow");
+        Path path = directory.resolve("app.log");
+        Files.writeString(path, "línea 1\nlínea 2\n");
+
+        FileReaderService fileReaderService = new FileReaderServiceImpl();
+        fileReaderService.follow(path, Duration.ofMillis(500))
+                .take(8)
+                .subscribe(Util.subscriber());
+
+        Util.sleepSeconds(1);
+        Files.writeString(path, "línea 3\nlínea 4\n", StandardOpenOption.APPEND);
+        Util.sleepSeconds(1);
+        Files.writeString(path, "después de truncar\n");
+        Util.sleepSeconds(1);
+        Files.writeString(path, "última del archivo rotado\n", StandardOpenOption.APPEND);
+        Files.move(path, directory.resolve("app.log.1"));
+        Files.writeString(path, "primera del archivo nuevo\nsegunda del archivo nuevo\n");
+        Util.sleepSeconds(2);
+
+        Files.delete(path);
+        Files.delete(directory.resolve("app.log.1"));
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,66 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileCheckpointStore;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderService;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Lectura con checkpoints: la primera ejecución procesa 900.000 de 1.000.000 de líneas y se
+ * detiene (take cancela y resume() guarda el último commit). La segunda, con un store nuevo como
+ * después de reiniciar el proceso, retoma desde ese checkpoint y solo lee las líneas que faltaban.
+ * Si en lugar de detenerse el proceso se cayera, se repetiría como mucho un intervalo de líneas.
+ */
+public class Lec13ResumableRead {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec13ResumableRead.class);
+    private static final int LINES = 1_000_000;
+
+    public static void main(String[] args) throws IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(FileReaderServiceImpl.class)).setLevel(Level.WARN);
+
+        Path directory = Files.createTempDirectory("sec04-checkpoint");
+        Path path = directory.resolve("events.log");
+        try {
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                for (int i = 0; i < LINES; i++) {
+                    writer.write("evento " + i + " con algo de contenido de relleno\n");
+                }
+            }
+            FileReaderService fileReaderService = new FileReaderServiceImpl(64 * 1024);
+
+            FileCheckpointStore checkpoints = new FileCheckpointStore(directory, Duration.ofMillis(100));
+            run("primera", fileReaderService, path, checkpoints, 900_000);
+
+            try (FileCheckpointStore restarted = new FileCheckpointStore(directory, Duration.ofMillis(100))) {
+                log.info("Se retoma desde el byte {} de {}", restarted.load(path), Files.size(path));
+                run("segunda", fileReaderService, path, restarted, LINES);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    private static void run(String name, FileReaderService fileReaderService, Path path,
+                            FileCheckpointStore checkpoints, int limit) {
+        long start = System.nanoTime();
+        Long count = fileReaderService.resume(path, checkpoints)
+                .take(limit)
+                .doOnNext(line -> checkpoints.commit(path, line.end())) // recién procesada
+                .count()
+                .block();
+        log.info("{} ejecución: {} líneas en {} ms", name, count, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,76 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderService;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Lectura de un archivo .gz: MB/s (del contenido descomprimido) leyendo el .gz directamente,
+ * con memoria acotada, frente a descomprimirlo primero a disco y después leer el archivo plano.
+ */
+public class Lec14CompressedRead {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec14CompressedRead.class);
+    private static final int LINES = 3_000_000;
+
+    public static void main(String[] args) throws IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(FileReaderServiceImpl.class)).setLevel(Level.WARN);
+
+        Path directory = Files.createTempDirectory("sec04-gzip");
+        Path gzip = directory.resolve("events.log.gz");
+        Path plain = directory.resolve("events.log");
+        try {
+            try (Writer writer = Files.newBufferedWriter(plain)) {
+                for (int i = 0; i < LINES; i++) {
+                    writer.write("2024-01-01T00:00:00 INFO línea número " + i + " con algo de contenido de relleno\n");
+                }
+            }
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip), 64 * 1024)) {
+                Files.copy(plain, out);
+            }
+            long bytes = Files.size(plain);
+            Files.delete(plain);
+            log.info("{} MB sin comprimir, {} MB comprimido", bytes / (1024 * 1024), Files.size(gzip) / (1024 * 1024));
+
+            FileReaderService fileReaderService = new FileReaderServiceImpl(1024 * 1024);
+            for (int round = 1; round <= 3; round++) {
+                log.info("---- ronda {} ----", round);
+
+                long start = System.nanoTime();
+                Long count = fileReaderService.read(gzip).count().block();
+                report("directo desde .gz        ", count, bytes, System.nanoTime() - start);
+
+                start = System.nanoTime();
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(gzip), 64 * 1024)) {
+                    Files.copy(in, plain, StandardCopyOption.REPLACE_EXISTING);
+                }
+                count = fileReaderService.read(plain).count().block();
+                report("descomprimir y luego leer", count, bytes, System.nanoTime() - start);
+                Files.delete(plain);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+
+    private static void report(String name, Long count, long bytes, long elapsed) {
+        log.info("{}: {} líneas en {} ms | {} MB/s", name, count, elapsed / 1_000_000,
+                bytes * 1_000L / (1024 * 1024) / (elapsed / 1_000_000));
+    }
+}
@@ -0,0 +1,73 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.common.Util;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.ExternalSorter;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderService;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Ordenamiento externo de 5.000.000 de líneas (unos 300MB en memoria como String) con un
+ * presupuesto de 16MB; se puede correr con -Xmx64m. Se verifica que la salida esté ordenada.
+ * Después, merge() solo, para combinar tres archivos que ya estaban ordenados.
+ */
+public class Lec15ExternalSort {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec15ExternalSort.class);
+    private static final int LINES = 5_000_000;
+    private static final long MEMORY_BUDGET = 16 * 1024 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(FileReaderServiceImpl.class)).setLevel(Level.WARN);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(ExternalSorter.class)).setLevel(Level.WARN);
+
+        Path directory = Files.createTempDirectory("sec04-sort");
+        Path path = directory.resolve("unsorted.txt");
+        try {
+            Random random = new Random(42);
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                for (int i = 0; i < LINES; i++) {
+                    writer.write(Long.toString(random.nextLong() & Long.MAX_VALUE, 36) + " evento " + i + "\n");
+                }
+            }
+            FileReaderService fileReaderService = new FileReaderServiceImpl(1024 * 1024);
+            ExternalSorter sorter = new ExternalSorter(fileReaderService, directory, MEMORY_BUDGET);
+
+            AtomicReference<String> previous = new AtomicReference<>("");
+            AtomicLong outOfOrder = new AtomicLong();
+            long start = System.nanoTime();
+            Long count = sorter.sort(path)
+                    .doOnNext(line -> {
+                        if (previous.getAndSet(line).compareTo(line) > 0) outOfOrder.incrementAndGet();
+                    })
+                    .count()
+                    .block();
+            log.info("{} líneas ordenadas en {} ms, {} fuera de orden, heap máximo {} MB", count,
+                    (System.nanoTime() - start) / 1_000_000, outOfOrder.get(), Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+            List<Path> sortedFiles = List.of(directory.resolve("a.txt"), directory.resolve("b.txt"), directory.resolve("c.txt"));
+            Files.writeString(sortedFiles.get(0), "ana\ncarlos\nmaria\n");
+            Files.writeString(sortedFiles.get(1), "beatriz\ndiego\n");
+            Files.writeString(sortedFiles.get(2), "alberto\nluis\nzoe\n");
+            sorter.merge(sortedFiles)
+                    .subscribe(Util.subscriber());
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically;
+
+import dev.magadiflo.app.common.Util;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.helper.NameGenerator;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.helper.OverflowPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diez hilos llaman a generate() mientras hay dos suscriptores: uno rápido (demanda ilimitada) y
+ * uno lento (un elemento cada 10 ms). Sin share(), los dos reciben los nombres. Para cada
+ * política se muestra cuánto recibió cada uno, cuánto quedó en su buffer y cuánto se descartó.
+ * <p>
+ * Con BLOCK se generan 5 veces el buffer: los productores quedan esperando muchas veces y se
+ * despiertan cuando delayElements pide su próximo lote. Al final el lento tiene que haber recibido
+ * todos los nombres y ningún productor puede quedar bloqueado.
+ */
+public class Lec16NameGeneratorOverflow {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec16NameGeneratorOverflow.class);
+    private static final int BUFFER_SIZE = 100;
+    private static final int PRODUCERS = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        for (OverflowPolicy overflowPolicy : OverflowPolicy.values()) {
+            run(overflowPolicy);
+        }
+    }
+
+    private static void run(OverflowPolicy overflowPolicy) throws InterruptedException {
+        NameGenerator nameGenerator = new NameGenerator(BUFFER_SIZE, overflowPolicy);
+        Flux<String> stringFlux = Flux.create(nameGenerator);
+        AtomicLong fast = new AtomicLong();
+        AtomicLong slow = new AtomicLong();
+        Disposable fastSubscription = stringFlux.subscribe(name -> fast.incrementAndGet());
+        Disposable slowSubscription = stringFlux
+                .delayElements(Duration.ofMillis(10))
+                .subscribe(name -> slow.incrementAndGet(),
+                        throwable -> log.info("{}: el suscriptor lento falló: {}", overflowPolicy, throwable.getMessage()));
+
+        // Con BLOCK los productores van al ritmo del suscriptor lento (unos 5 segundos)
+        int perThread = overflowPolicy == OverflowPolicy.BLOCK ? BUFFER_SIZE * 5 / PRODUCERS : 1000;
+        List<Thread> producers = new ArrayList<>();
+        for (int i = 0; i < PRODUCERS; i++) {
+            producers.add(Thread.ofPlatform().start(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    nameGenerator.generate();
+                }
+            }));
+        }
+        for (Thread producer : producers) {
+            producer.join(Duration.ofSeconds(30));
+            if (producer.isAlive()) log.warn("{}: un productor sigue bloqueado", overflowPolicy);
+        }
+        log.info("{}: generados {} | rápido {} | lento {} | {}", overflowPolicy, perThread * PRODUCERS,
+                fast.get(), slow.get(), nameGenerator.stats());
+
+        Util.sleepSeconds(2);
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            log.info("{}: el lento recibió {} de {}", overflowPolicy, slow.get(), perThread * PRODUCERS);
+        }
+        fastSubscription.dispose();
+        slowSubscription.dispose();
+    }
+}
@@ -0,0 +1,118 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically;
+
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.helper.StripedIngestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+/**
+ * Benchmark JMH: varios hilos productores emitiendo hacia un único suscriptor, con 1, 4, 16 y 64
+ * productores:
+ * - Flux.create: todos llaman a next() sobre el mismo FluxSink, que los serializa.
+ * - Sinks.many().multicast(): tryEmitNext falla con FAIL_NON_SERIALIZED si otro hilo está
+ * emitiendo, así que cada productor reintenta (busy loop), que es lo que hay que hacer con él.
+ * - StripedIngestion: cada productor ofrece en su stripe y un solo hilo vacía las colas.
+ * <p>
+ * Cada invocación emite {@code ITEMS} elementos y el resultado es elementos/s. El suscriptor los
+ * suma y la suma va al Blackhole, así ningún elemento se puede descartar por código muerto. Cada
+ * implementación corre en sus propios forks, sin compartir el perfil del JIT con las otras. Las
+ * diferencias aparecen con varios núcleos: con uno solo no hay contención real y el costo que se
+ * ve es el del cambio de hilo.
+ * <p>
+ * Se corre con el main de esta clase (o con org.openjdk.jmh.Main) después de compilar, para que
+ * el annotation processor de JMH haya generado las clases del benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(Lec17IngestionBenchmark.ITEMS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class Lec17IngestionBenchmark {
+
+    static final int ITEMS = 1 << 20; // divisible por cualquier cantidad de productores del @Param
+
+    @Param({"1", "4", "16", "64"})
+    public int producers;
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(Lec17IngestionBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+    @Benchmark
+    public void fluxCreate(Blackhole blackhole) throws InterruptedException {
+        AtomicReference<FluxSink<Long>> sink = new AtomicReference<>();
+        CompletableFuture<Long> sum = sum(Flux.create(sink::set));
+        this.produce(value -> sink.get().next(value));
+        sink.get().complete();
+        blackhole.consume(sum.join());
+    }
+
+    @Benchmark
+    public void sinksMulticast(Blackhole blackhole) throws InterruptedException {
+        Sinks.Many<Long> sink = Sinks.many().multicast().onBackpressureBuffer();
+        CompletableFuture<Long> sum = sum(sink.asFlux());
+        this.produce(value -> sink.emitNext(value, (signalType, emitResult) ->
+                emitResult == Sinks.EmitResult.FAIL_NON_SERIALIZED || emitResult == Sinks.EmitResult.FAIL_OVERFLOW));
+        sink.tryEmitComplete();
+        blackhole.consume(sum.join());
+    }
+
+    @Benchmark
+    public void stripedIngestion(Blackhole blackhole) throws InterruptedException {
+        StripedIngestion<Long> ingestion = new StripedIngestion<>();
+        CompletableFuture<Long> sum = sum(ingestion.asFlux());
+        this.produce(value -> {
+            while (!ingestion.offer(value)) {
+                Thread.yield(); // stripe llena: se deja correr al consumidor
+            }
+        });
+        ingestion.complete();
+        blackhole.consume(sum.join());
+    }
+
+    private static CompletableFuture<Long> sum(Flux<Long> flux) {
+        return flux.reduce(0L, Long::sum).toFuture();
+    }
+
+    private void produce(LongConsumer emitter) throws InterruptedException {
+        int perProducer = ITEMS / this.producers;
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < this.producers; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (long value = 0; value < perProducer; value++) {
+                    emitter.accept(value);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
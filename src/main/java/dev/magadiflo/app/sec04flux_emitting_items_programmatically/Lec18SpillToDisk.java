@@ -0,0 +1,57 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically;
+
+import dev.magadiflo.app.common.Util;
+import dev.magadiflo.app.pubsub.subscriber.SubscriberImpl;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.helper.SpillBuffer;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.helper.SpillSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+/**
+ * Como produceEarly() de Lec04FluxCreateDownStreamDemand, pero con 5.000.000 de elementos y el
+ * suscriptor detenido: Flux.create encolaría todo en el heap (unos 300MB). Con SpillBuffer solo
+ * quedan 1.000 en memoria y el resto va a segmentos en disco; se puede correr con -Xmx64m.
+ * Después el suscriptor pide de a poco y los recibe en orden.
+ */
+public class Lec18SpillToDisk {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec18SpillToDisk.class);
+    private static final int ITEMS = 5_000_000;
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Files.createTempDirectory("sec04-spill");
+        SubscriberImpl subscriber = new SubscriberImpl();
+
+        Flux<String> fluxCreate = Flux.create(fluxSink -> {
+            for (int i = 0; i < ITEMS; i++) {
+                fluxSink.next("evento número " + i + " con algo de contenido de relleno");
+            }
+            fluxSink.complete();
+            log.info("Productor terminó: {} elementos emitidos", ITEMS);
+        });
+
+        fluxCreate
+                .transform(SpillBuffer.onBackpressureSpill(directory, 1_000, SpillSerializer.utf8()))
+                .subscribe(subscriber);
+
+        Runtime runtime = Runtime.getRuntime();
+        log.info("Heap usado: {} MB de {} MB", (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024),
+                runtime.maxMemory() / (1024 * 1024));
+
+        Util.sleepSeconds(2);
+        subscriber.getSubscription().request(3);
+        subscriber.getSubscription().request(3);
+        subscriber.getSubscription().cancel();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            log.info("Segmentos que quedan en disco después de cancelar: {}", files.count());
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,59 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Formato de compresión de un archivo de entrada, según su extensión: {@code .gz} (gzip),
+ * {@code .zz} (zlib) y {@code .deflate} (deflate sin encabezado). Cualquier otro archivo se lee
+ * como texto plano.
+ * <p>
+ * No se mira el contenido: el encabezado zlib son dos bytes que también pueden ser texto común
+ * ("80", "x ", "Hj"...), y reinterpretar así un archivo plano pierde datos sin avisar. Si un
+ * archivo con extensión de comprimido no lo es, el error sale al descomprimir (por ejemplo
+ * "Not in GZIP format").
+ */
+enum Compression {
+
+    NONE, GZIP, ZLIB, DEFLATE;
+
+    /**
+     * Tamaño del buffer de entrada comprimida. Junto con la ventana del Inflater (32KB) y el bloque
+     * del LineSplitter es toda la memoria que usa la lectura, sin importar el tamaño del archivo.
+     */
+    private static final int INPUT_BUFFER_SIZE = 64 * 1024;
+
+    static Compression detect(Path path) {
+        String fileName = path.getFileName().toString();
+        if (fileName.endsWith(".gz")) return GZIP;
+        if (fileName.endsWith(".zz")) return ZLIB;
+        if (fileName.endsWith(".deflate")) return DEFLATE;
+        return NONE;
+    }
+
+    /**
+     * Envuelve la entrada comprimida; al cerrar el stream devuelto se libera el Inflater y se cierra {@code in}.
+     */
+    InputStream decompress(InputStream in) throws IOException {
+        return switch (this) {
+            case NONE -> in;
+            case GZIP -> new GZIPInputStream(in, INPUT_BUFFER_SIZE);
+            case ZLIB -> inflating(in, false);
+            case DEFLATE -> inflating(in, true);
+        };
+    }
+
+    private static InputStream inflating(InputStream in, boolean nowrap) {
+        return new InflaterInputStream(in, new Inflater(nowrap), INPUT_BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                super.close();
+                this.inf.end(); // con un Inflater propio, InflaterInputStream no lo libera al cerrar
+            }
+        };
+    }
+}
@@ -0,0 +1,223 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Ordenamiento externo de líneas: sirve para archivos más grandes que el heap.
+ * <p>
+ * - Las líneas se juntan en runs de hasta {@code memoryBudget} bytes (estimados), cada run se
+ * ordena con Arrays.parallelSort y se escribe a un archivo temporal en {@code directory}.
+ * - Los runs se mezclan con {@link KWayMerge}. Si hay más runs de los que entran abiertos a la vez
+ * en el presupuesto (un BufferedReader cada uno), se mezclan por grupos en archivos intermedios
+ * hasta que entren, así que la memoria no depende del tamaño de la entrada.
+ * <p>
+ * La entrada se pide de a poco (publishOn) y un run solo se llena cuando el anterior ya se
+ * escribió; la salida se emite de a una línea por request. El orden es estable. Los archivos
+ * temporales se borran al completar, fallar o cancelar.
+ */
+public class ExternalSorter {
+
+    private static final Logger log = LoggerFactory.getLogger(ExternalSorter.class);
+    /**
+     * Estimación por línea además de sus caracteres: encabezados del String y su byte[], la
+     * referencia en la lista y la del arreglo que se ordena.
+     */
+    private static final long LINE_OVERHEAD = 64;
+    private final FileReaderService fileReaderService;
+    private final Path directory;
+    private final long memoryBudget;
+    private final Comparator<String> comparator;
+    private final int fanIn;
+
+    public ExternalSorter(FileReaderService fileReaderService, Path directory, long memoryBudget) {
+        this(fileReaderService, directory, memoryBudget, Comparator.naturalOrder());
+    }
+
+    public ExternalSorter(FileReaderService fileReaderService, Path directory, long memoryBudget,
+                          Comparator<String> comparator) {
+        if (memoryBudget < 2 * KWayMerge.READER_BYTES) {
+            throw new IllegalArgumentException("El presupuesto de memoria debe ser de al menos " + 2 * KWayMerge.READER_BYTES + " bytes");
+        }
+        this.fileReaderService = fileReaderService;
+        this.directory = directory;
+        this.memoryBudget = memoryBudget;
+        this.comparator = comparator;
+        this.fanIn = (int) Math.min(Integer.MAX_VALUE, memoryBudget / KWayMerge.READER_BYTES);
+    }
+
+    public Flux<String> sort(Path path) {
+        return this.sort(Flux.defer(() -> {
+            try {
+                return this.fileReaderService.read(path);
+            } catch (IOException e) {
+                return Flux.error(e);
+            }
+        }));
+    }
+
+    public Flux<String> sort(Flux<String> lines) {
+        return Flux.defer(() -> {
+            TempFiles tempFiles = new TempFiles(this.directory);
+            long[] runBytes = {0};
+            return lines.publishOn(Schedulers.boundedElastic())
+                    .bufferUntil(line -> {
+                        runBytes[0] += LINE_OVERHEAD + 2L * line.length();
+                        if (runBytes[0] < this.memoryBudget) return false;
+                        runBytes[0] = 0;
+                        return true;
+                    })
+                    .concatMap(run -> Mono.fromCallable(() -> this.spill(run, tempFiles)))
+                    .collectList()
+                    .flatMapMany(runs -> this.merge(runs, tempFiles))
+                    .doFinally(signal -> tempFiles.close());
+        });
+    }
+
+    /**
+     * Mezcla archivos que ya están ordenados con el mismo comparador. Los archivos no se modifican.
+     */
+    public Flux<String> merge(List<Path> sortedFiles) {
+        return Flux.defer(() -> {
+            TempFiles tempFiles = new TempFiles(this.directory);
+            return this.merge(sortedFiles, tempFiles)
+                    .doFinally(signal -> tempFiles.close());
+        });
+    }
+
+    private Flux<String> merge(List<Path> files, TempFiles tempFiles) {
+        Mono<List<Path>> mergeable = files.size() <= this.fanIn
+                ? Mono.just(files)
+                : Mono.fromCallable(() -> this.reduce(files, tempFiles)).subscribeOn(Schedulers.boundedElastic());
+        return mergeable.flatMapMany(paths -> Flux.generate(
+                () -> KWayMerge.open(paths, this.comparator),
+                this::readMerged,
+                this::closeMerge
+        ));
+    }
+
+    private Path spill(List<String> run, TempFiles tempFiles) throws IOException {
+        String[] lines = run.toArray(String[]::new);
+        run.clear();
+        Arrays.parallelSort(lines, this.comparator);
+        Path file = tempFiles.create();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+        log.info("Run de {} líneas escrito", lines.length);
+        return file;
+    }
+
+    /**
+     * Mezcla por grupos de {@code fanIn} archivos hasta que queden como mucho {@code fanIn}.
+     * Los intermedios se borran en cuanto se mezclan; los archivos originales no se tocan.
+     */
+    private List<Path> reduce(List<Path> files, TempFiles tempFiles) throws IOException {
+        List<Path> current = files;
+        while (current.size() > this.fanIn) {
+            List<Path> next = new ArrayList<>();
+            for (int from = 0; from < current.size(); from += this.fanIn) {
+                List<Path> group = current.subList(from, Math.min(from + this.fanIn, current.size()));
+                if (group.size() == 1) {
+                    next.add(group.get(0));
+                    continue;
+                }
+                Path file = tempFiles.create();
+                try (KWayMerge merge = KWayMerge.open(group, this.comparator);
+                     BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    String line;
+                    while ((line = merge.next()) != null) {
+                        writer.write(line);
+                        writer.write('\n');
+                    }
+                }
+                group.forEach(tempFiles::delete);
+                next.add(file);
+            }
+            log.info("Pasada de mezcla: {} archivos -> {}", current.size(), next.size());
+            current = next;
+        }
+        return current;
+    }
+
+    private KWayMerge readMerged(KWayMerge merge, SynchronousSink<String> synchronousSink) {
+        try {
+            String line = merge.next();
+            if (line == null) {
+                synchronousSink.complete();
+            } else {
+                synchronousSink.next(line);
+            }
+        } catch (IOException e) {
+            synchronousSink.error(e);
+        }
+        return merge;
+    }
+
+    private void closeMerge(KWayMerge merge) {
+        try {
+            merge.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Los archivos temporales de una suscripción. Después de close() (cancelación) un archivo
+     * nuevo se borra en cuanto se crea, por si el run o la pasada seguían en curso.
+     */
+    private static final class TempFiles {
+        private final Path directory;
+        private final List<Path> files = new ArrayList<>();
+        private boolean closed;
+
+        private TempFiles(Path directory) {
+            this.directory = directory;
+        }
+
+        private synchronized Path create() throws IOException {
+            if (this.closed) throw new IOException("Ordenamiento cancelado");
+            Path file = Files.createTempFile(this.directory, "sort-", ".run");
+            this.files.add(file);
+            return file;
+        }
+
+        /**
+         * Solo borra los archivos creados aquí.
+         */
+        private synchronized void delete(Path file) {
+            if (this.files.remove(file)) deleteQuietly(file);
+        }
+
+        private synchronized void close() {
+            this.closed = true;
+            this.files.forEach(TempFiles::deleteQuietly);
+            this.files.clear();
+        }
+
+        private static void deleteQuietly(Path file) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("No se pudo borrar el archivo temporal {}", file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment;
+
+import dev.magadiflo.app.common.FileException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Checkpoints en archivos: para cada archivo que se lee, el offset hasta el que ya se procesó.
+ * <p>
+ * commit() solo anota el offset en memoria; se escribe a disco como mucho una vez por
+ * {@code interval}, y siempre en flush() y close(). Cada escritura es atómica (archivo temporal +
+ * force + ATOMIC_MOVE + force del directorio), así que después de una caída el checkpoint es el
+ * anterior o el nuevo, nunca uno a medias. Lo que se pierde es, como mucho, lo procesado durante
+ * el último intervalo.
+ * <p>
+ * Junto al offset se guarda una identidad barata del archivo (el fileKey, es decir dispositivo e
+ * inodo, o la fecha de creación donde no hay fileKey), para detectar que se reemplazó por otro
+ * aunque el nuevo sea más grande.
+ */
+public class FileCheckpointStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(FileCheckpointStore.class);
+    private final Path directory;
+    private final long intervalNanos;
+    private final Map<Path, Long> committed = new ConcurrentHashMap<>();
+    private final Map<Path, Long> saved = new ConcurrentHashMap<>();
+    private final Map<Path, String> identities = new ConcurrentHashMap<>();
+    private volatile long lastFlush = System.nanoTime();
+
+    public FileCheckpointStore(Path directory, Duration interval) {
+        this.directory = directory;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * El último offset guardado para {@code file}, o 0 si no hay checkpoint, si el archivo es otro
+     * (cambió su identidad) o si es más chico que el offset (fue truncado).
+     */
+    public long load(Path file) {
+        Path key = key(file);
+        try {
+            String identity = identity(key);
+            this.identities.put(key, identity);
+            String[] lines = Files.readString(this.checkpointPath(key)).split("\n");
+            long offset = Long.parseLong(lines[0].trim());
+            if (lines.length > 1 && !lines[1].equals(identity)) {
+                log.warn("{} fue reemplazado desde el último checkpoint, se lee desde el inicio", file);
+                return 0;
+            }
+            if (offset > Files.size(file)) {
+                log.warn("El checkpoint de {} ({}) supera el tamaño del archivo, se lee desde el inicio", file, offset);
+                return 0;
+            }
+            this.saved.put(key, offset);
+            return offset;
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException | NumberFormatException e) {
+            throw new FileException("Problema al leer el checkpoint", e);
+        }
+    }
+
+    public void commit(Path file, long offset) {
+        Path key = key(file);
+        if (!this.identities.containsKey(key)) this.identities.put(key, this.identityOrFail(key));
+        this.committed.put(key, offset);
+        if (System.nanoTime() - this.lastFlush >= this.intervalNanos) this.flush();
+    }
+
+    public synchronized void flush() {
+        this.lastFlush = System.nanoTime();
+        for (Map.Entry<Path, Long> entry : this.committed.entrySet()) {
+            if (entry.getValue().equals(this.saved.get(entry.getKey()))) continue;
+            this.save(entry.getKey(), entry.getValue());
+            this.saved.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void close() {
+        this.flush();
+    }
+
+    private void save(Path key, long offset) {
+        Path target = this.checkpointPath(key);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(this.directory, target.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(StandardCharsets.UTF_8.encode(offset + "\n" + this.identities.get(key) + "\n"));
+                channel.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory(this.directory); // sin esto el rename puede perderse en una caída
+            log.debug("Checkpoint de {}: {}", key, offset);
+        } catch (IOException e) {
+            throw new FileException("Problema al escribir el checkpoint", e);
+        } finally {
+            deleteQuietly(temp); // después del move ya no existe
+        }
+    }
+
+    /**
+     * fileKey (dispositivo e inodo) donde existe. Si no, la fecha de creación: no se usa siempre
+     * porque en algunos sistemas de archivos cae en la de modificación, que cambia al agregar líneas.
+     */
+    private static String identity(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        Object fileKey = attributes.fileKey();
+        return fileKey != null ? fileKey.toString() : "creado " + attributes.creationTime().toMillis();
+    }
+
+    private String identityOrFail(Path file) {
+        try {
+            return identity(file);
+        } catch (IOException e) {
+            throw new FileException("Problema al leer el checkpoint", e);
+        }
+    }
+
+    /**
+     * En Windows un directorio no se puede abrir como FileChannel; ahí el rename ya es durable.
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        if (System.getProperty("os.name").startsWith("Windows")) return;
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static void deleteQuietly(Path temp) {
+        if (temp == null) return;
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            log.warn("No se pudo borrar el temporal {}", temp, e);
+        }
+    }
+
+    /**
+     * Nombre del archivo + hash de la ruta absoluta, para que dos archivos con el mismo nombre en
+     * directorios distintos no compartan checkpoint.
+     */
+    private Path checkpointPath(Path key) {
+        return this.directory.resolve("%s-%08x.checkpoint".formatted(key.getFileName(), key.toString().hashCode()));
+    }
+
+    private static Path key(Path file) {
+        return file.toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,191 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.FluxSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Modo follow ("tail -f"): emite las líneas del archivo y, al llegar al final, sigue emitiendo
+ * las que se vayan agregando. Solo emite cuando hay demanda.
+ * <p>
+ * - Al final del archivo espera una notificación del WatchService del directorio o, como mucho,
+ * {@code pollInterval}; si el WatchService no está disponible, simplemente consulta cada
+ * {@code pollInterval}. En cada consulta solo se leen los bytes nuevos, desde la última posición.
+ * - Truncado (el archivo es más chico que lo ya leído): se vuelve a leer desde el inicio.
+ * - Rotado (en la ruta hay otro archivo, distinto fileKey): se termina de leer el anterior,
+ * incluida una última línea sin '\n', y se abre el nuevo. Donde no hay fileKey (Windows) una
+ * rotación solo se detecta si el archivo nuevo es más chico, como un truncado.
+ * <p>
+ * Ocupa un hilo de boundedElastic() mientras dure la suscripción.
+ */
+class FileFollower implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(FileFollower.class);
+    private final Path path;
+    private final int blockSize;
+    private final long pollNanos;
+    private final FluxSink<String> sink;
+    private final Semaphore wakeUp = new Semaphore(0);
+    private volatile boolean stopped;
+    private volatile WatchService watchService;
+    private LineSplitter splitter;
+    private Object fileKey;
+    private boolean draining;
+
+    FileFollower(Path path, int blockSize, Duration pollInterval, FluxSink<String> sink) {
+        this.path = path;
+        this.blockSize = blockSize;
+        this.pollNanos = pollInterval.toNanos();
+        this.sink = sink;
+    }
+
+    /**
+     * Llegó demanda nueva.
+     */
+    void wakeUp() {
+        this.wakeUp.release();
+    }
+
+    void stop() {
+        this.stopped = true;
+        this.wakeUp.release();
+        this.closeWatchService();
+    }
+
+    @Override
+    public void run() {
+        try {
+            this.watchService = this.openWatchService();
+            if (this.stopped) return;
+            this.open();
+            while (!this.stopped) {
+                if (this.sink.requestedFromDownstream() == 0) {
+                    this.wakeUp.tryAcquire(this.pollNanos, TimeUnit.NANOSECONDS);
+                    continue;
+                }
+                ByteBuffer line = this.splitter.next();
+                if (line != null) {
+                    this.sink.next(this.splitter.decode(line));
+                } else if (this.draining) {
+                    // El archivo rotado ya se leyó entero: se abre el nuevo en cuanto exista
+                    if (Files.exists(this.path)) {
+                        this.open();
+                    } else {
+                        this.awaitChange();
+                    }
+                } else if (!this.checkFile()) {
+                    this.awaitChange();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // cancelado mientras esperaba una notificación
+        } catch (IOException e) {
+            this.sink.error(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.closeWatchService();
+            this.closeSplitter();
+        }
+    }
+
+    private void open() throws IOException {
+        this.closeSplitter();
+        this.fileKey = Files.readAttributes(this.path, BasicFileAttributes.class).fileKey();
+        this.splitter = LineSplitter.follow(this.path, this.blockSize);
+        this.draining = false;
+        log.info("Abriendo archivo (follow)");
+    }
+
+    /**
+     * @return true si el archivo se truncó o rotó y hay que seguir leyendo sin esperar
+     */
+    private boolean checkFile() throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(this.path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false; // rotado y todavía sin recrear
+        }
+        if (!Objects.equals(attributes.fileKey(), this.fileKey)) {
+            log.info("Archivo rotado, se termina de leer el anterior");
+            this.splitter.stopFollowing();
+            this.draining = true;
+            return true;
+        }
+        if (attributes.size() < this.splitter.position()) {
+            log.info("Archivo truncado, se vuelve a leer desde el inicio");
+            this.open();
+            return true;
+        }
+        return false;
+    }
+
+    private void awaitChange() throws InterruptedException {
+        WatchService watchService = this.watchService;
+        if (watchService == null) {
+            this.wakeUp.tryAcquire(this.pollNanos, TimeUnit.NANOSECONDS);
+            return;
+        }
+        WatchKey key = watchService.poll(this.pollNanos, TimeUnit.NANOSECONDS);
+        if (key != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    private WatchService openWatchService() {
+        WatchService watchService = null;
+        try {
+            watchService = this.path.getFileSystem().newWatchService();
+            this.path.toAbsolutePath().getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            return watchService;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("WatchService no disponible, se consulta el archivo cada {} ms", this.pollNanos / 1_000_000);
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException ignored) {
+                }
+            }
+            return null;
+        }
+    }
+
+    private void closeWatchService() {
+        WatchService watchService = this.watchService;
+        if (watchService == null) return;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.warn("No se pudo cerrar el WatchService", e);
+        }
+    }
+
+    private void closeSplitter() {
+        if (this.splitter == null) return;
+        try {
+            this.splitter.close();
+            log.info("Archivo cerrado");
+        } catch (IOException e) {
+            log.warn("No se pudo cerrar el archivo", e);
+        }
+        this.splitter = null;
+    }
+}
@@ -1,10 +1,55 @@
 package dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.ParallelFlux;
+import reactor.core.scheduler.Scheduler;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.time.Duration;
 
 public interface FileReaderService {
     Flux<String> read(Path path) throws IOException;
+
+    /**
+     * Las líneas como bytes, sin decodificar ni copiar. Cada buffer solo es válido durante el
+     * onNext que lo recibe: si hay que guardarlo o encolarlo (publishOn, buffer...), copiarlo antes.
+     */
+    Flux<ByteBuffer> readLines(Path path);
+
+    /**
+     * Lectura en paralelo por rangos de bytes: cada rail lee una parte del archivo.
+     */
+    ParallelFlux<String> readParallel(Path path, int parallelism, Scheduler scheduler);
+
+    /**
+     * Lectura en paralelo por rangos de bytes, con las líneas en el orden original del archivo.
+     */
+    Flux<String> readOrdered(Path path, int parallelism, Scheduler scheduler);
+
+    /**
+     * Modo follow: no se completa al llegar al final del archivo, sigue emitiendo las líneas que
+     * se van agregando. {@code pollInterval} es la espera máxima entre dos consultas del archivo.
+     */
+    Flux<String> follow(Path path, Duration pollInterval);
+
+    default Flux<String> follow(Path path) {
+        return this.follow(path, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Lee desde {@code offset} (el inicio de una línea) e informa la posición de cada línea.
+     */
+    Flux<OffsetLine> readFrom(Path path, long offset);
+
+    /**
+     * Retoma la lectura desde el último checkpoint de {@code checkpoints}. Quien consume debe llamar
+     * a {@code checkpoints.commit(path, line.end())} después de procesar cada línea; al terminar,
+     * fallar o cancelar se hace un flush.
+     */
+    default Flux<OffsetLine> resume(Path path, FileCheckpointStore checkpoints) {
+        return Flux.defer(() -> this.readFrom(path, checkpoints.load(path)))
+                .doFinally(signal -> checkpoints.flush());
+    }
 }
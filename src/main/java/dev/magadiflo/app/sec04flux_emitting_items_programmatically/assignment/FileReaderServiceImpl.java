@@ -3,20 +3,51 @@ package dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.ParallelFlux;
 import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Objects;
+import java.util.function.Function;
 
 public class FileReaderServiceImpl implements FileReaderService {
 
     private static final Logger log = LoggerFactory.getLogger(FileReaderServiceImpl.class);
+    private static final int BLOCK_SIZE = 1024 * 1024;
+    private static final int ORDERED_BATCH = 1024;
+    private final int blockSize;
+
+    public FileReaderServiceImpl() {
+        this(0);
+    }
+
+    /**
+     * @param blockSize si es mayor que 0, read() usa {@link LineSplitter} con bloques de ese tamaño
+     *                  en lugar de BufferedReader, y no registra cada línea en el log
+     */
+    public FileReaderServiceImpl(int blockSize) {
+        this.blockSize = blockSize;
+    }
 
     @Override
     public Flux<String> read(Path path) {
+        if (this.blockSize > 0) {
+            return Flux.generate(
+                    () -> this.openSplitter(path, this.blockSize),
+                    this::readText,
+                    this::closeSplitter
+            );
+        }
         return Flux.generate(
                 () -> openFile(path),
                 this::readFile,
@@ -24,9 +55,82 @@ public class FileReaderServiceImpl implements FileReaderService {
         );
     }
 
+    @Override
+    public Flux<ByteBuffer> readLines(Path path) {
+        return Flux.generate(
+                () -> this.openSplitter(path, this.blockSize > 0 ? this.blockSize : BLOCK_SIZE),
+                (LineSplitter splitter, SynchronousSink<ByteBuffer> synchronousSink) -> {
+                    ByteBuffer line = this.readLine(splitter, synchronousSink);
+                    if (line != null) synchronousSink.next(line);
+                    return splitter;
+                },
+                this::closeSplitter
+        );
+    }
+
+    /**
+     * El archivo se parte en {@code parallelism} rangos de bytes con los límites ajustados al
+     * inicio de una línea; cada rango se lee con su propio FileChannel, suscrito en {@code scheduler}.
+     * El orden entre rangos se pierde; cancelar cierra todos los canales.
+     */
+    @Override
+    public ParallelFlux<String> readParallel(Path path, int parallelism, Scheduler scheduler) {
+        return Flux.range(0, parallelism)
+                .parallel(parallelism)
+                .flatMap(index -> this.readRange(path, index, parallelism).subscribeOn(scheduler));
+    }
+
+    /**
+     * Igual que {@link #readParallel}, pero las líneas salen en el orden del archivo: cada rango se
+     * lee por adelantado en lotes de {@code ORDERED_BATCH} líneas mientras se emiten los anteriores.
+     */
+    @Override
+    public Flux<String> readOrdered(Path path, int parallelism, Scheduler scheduler) {
+        return Flux.range(0, parallelism)
+                .flatMapSequential(index -> this.readRange(path, index, parallelism)
+                        .buffer(ORDERED_BATCH)
+                        .subscribeOn(scheduler), parallelism)
+                .flatMapIterable(Function.identity());
+    }
+
+    @Override
+    public Flux<String> follow(Path path, Duration pollInterval) {
+        return Flux.create(sink -> {
+            FileFollower follower = new FileFollower(path, this.blockSize > 0 ? this.blockSize : BLOCK_SIZE, pollInterval, sink);
+            sink.onRequest(value -> follower.wakeUp());
+            sink.onDispose(follower::stop);
+            Schedulers.boundedElastic().schedule(follower);
+        });
+    }
+
+    @Override
+    public Flux<OffsetLine> readFrom(Path path, long offset) {
+        return Flux.generate(
+                () -> this.openSplitterAt(path, offset),
+                this::readOffsetLine,
+                this::closeSplitter
+        );
+    }
+
+    private Flux<String> readRange(Path path, int index, int count) {
+        return Flux.generate(
+                () -> this.openRange(path, index, count),
+                this::readText,
+                this::closeSplitter
+        );
+    }
+
     private BufferedReader openFile(Path path) throws IOException {
         log.info("Abriendo archivo");
-        return Files.newBufferedReader(path);
+        Compression compression = Compression.detect(path);
+        if (compression == Compression.NONE) return Files.newBufferedReader(path);
+        InputStream in = Files.newInputStream(path);
+        try {
+            return new BufferedReader(new InputStreamReader(compression.decompress(in), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
     }
 
     private BufferedReader readFile(BufferedReader reader, SynchronousSink<String> synchronousSink) {
@@ -53,4 +157,71 @@ public class FileReaderServiceImpl implements FileReaderService {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Los archivos comprimidos se descomprimen a medida que el LineSplitter pide bloques.
+     */
+    private LineSplitter openSplitter(Path path, int blockSize) throws IOException {
+        log.info("Abriendo archivo");
+        Compression compression = Compression.detect(path);
+        if (compression == Compression.NONE) return new LineSplitter(path, blockSize);
+        return LineSplitter.compressed(path, blockSize, compression);
+    }
+
+    private LineSplitter openRange(Path path, int index, int count) throws IOException {
+        log.info("Abriendo archivo (rango {} de {})", index + 1, count);
+        requireUncompressed(path);
+        return LineSplitter.range(path, this.blockSize > 0 ? this.blockSize : BLOCK_SIZE, index, count);
+    }
+
+    private LineSplitter openSplitterAt(Path path, long offset) throws IOException {
+        log.info("Abriendo archivo desde el byte {}", offset);
+        requireUncompressed(path);
+        return LineSplitter.from(path, this.blockSize > 0 ? this.blockSize : BLOCK_SIZE, offset);
+    }
+
+    /**
+     * En un archivo comprimido no se puede empezar a leer en una posición arbitraria.
+     */
+    private static void requireUncompressed(Path path) {
+        if (Compression.detect(path) != Compression.NONE) {
+            throw new IllegalArgumentException("No se puede leer por posición un archivo comprimido: " + path);
+        }
+    }
+
+    private LineSplitter readOffsetLine(LineSplitter splitter, SynchronousSink<OffsetLine> synchronousSink) {
+        long offset = splitter.offset();
+        ByteBuffer line = this.readLine(splitter, synchronousSink);
+        if (line != null) synchronousSink.next(new OffsetLine(offset, splitter.offset(), splitter.decode(line)));
+        return splitter;
+    }
+
+    private LineSplitter readText(LineSplitter splitter, SynchronousSink<String> synchronousSink) {
+        ByteBuffer line = this.readLine(splitter, synchronousSink);
+        if (line != null) synchronousSink.next(splitter.decode(line));
+        return splitter;
+    }
+
+    /**
+     * Completa o falla el sink si no hay línea; en ese caso devuelve null.
+     */
+    private ByteBuffer readLine(LineSplitter splitter, SynchronousSink<?> synchronousSink) {
+        try {
+            ByteBuffer line = splitter.next();
+            if (Objects.isNull(line)) synchronousSink.complete();
+            return line;
+        } catch (IOException e) {
+            synchronousSink.error(e);
+            return null;
+        }
+    }
+
+    private void closeSplitter(LineSplitter splitter) {
+        try {
+            splitter.close();
+            log.info("Archivo cerrado");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
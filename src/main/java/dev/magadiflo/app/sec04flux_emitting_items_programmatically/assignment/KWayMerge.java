@@ -0,0 +1,103 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Mezcla k archivos ya ordenados con un heap que tiene la línea actual de cada uno: next()
+ * devuelve la menor y avanza solo ese archivo (O(log k) por línea). Entre líneas iguales sale
+ * primero la del archivo anterior en la lista, así que la mezcla es estable.
+ * <p>
+ * En memoria hay un BufferedReader de {@code READER_CHARS} por archivo y una línea por archivo.
+ */
+class KWayMerge implements Closeable {
+
+    static final int READER_CHARS = 8 * 1024;
+    /**
+     * Memoria estimada por archivo abierto: los chars del BufferedReader, los bytes del decoder
+     * de InputStreamReader y la línea actual.
+     */
+    static final long READER_BYTES = 32 * 1024;
+    private final PriorityQueue<Cursor> heap;
+
+    private KWayMerge(PriorityQueue<Cursor> heap) {
+        this.heap = heap;
+    }
+
+    static KWayMerge open(List<Path> files, Comparator<String> comparator) throws IOException {
+        Comparator<Cursor> order = Comparator.comparing((Cursor cursor) -> cursor.line, comparator)
+                .thenComparingInt(cursor -> cursor.index);
+        KWayMerge merge = new KWayMerge(new PriorityQueue<>(Math.max(1, files.size()), order));
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        Files.newInputStream(files.get(i)), StandardCharsets.UTF_8), READER_CHARS);
+                Cursor cursor = new Cursor(reader, i);
+                boolean empty = true;
+                try {
+                    empty = !cursor.advance();
+                } finally {
+                    if (empty) reader.close();
+                }
+                if (!empty) merge.heap.add(cursor);
+            }
+            return merge;
+        } catch (IOException | RuntimeException e) {
+            merge.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return la menor de las líneas actuales, o null si ya se leyeron todos los archivos
+     */
+    String next() throws IOException {
+        Cursor cursor = this.heap.poll();
+        if (cursor == null) return null;
+        String line = cursor.line;
+        if (cursor.advance()) {
+            this.heap.add(cursor);
+        } else {
+            cursor.reader.close();
+        }
+        return line;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Cursor cursor : this.heap) {
+            try {
+                cursor.reader.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        this.heap.clear();
+        if (failure != null) throw failure;
+    }
+
+    private static final class Cursor {
+        private final BufferedReader reader;
+        private final int index;
+        private String line;
+
+        private Cursor(BufferedReader reader, int index) {
+            this.reader = reader;
+            this.index = index;
+        }
+
+        private boolean advance() throws IOException {
+            this.line = this.reader.readLine();
+            return this.line != null;
+        }
+    }
+}
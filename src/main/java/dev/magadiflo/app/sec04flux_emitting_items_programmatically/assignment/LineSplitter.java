@@ -0,0 +1,249 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Estado de Flux.generate para leer líneas sin BufferedReader: se leen bloques grandes del
+ * FileChannel a un ByteBuffer directo y los saltos de línea ('\n' o "\r\n") se buscan sobre los
+ * bytes, de a 8 por vez (un long), sin decodificar nada.
+ * <p>
+ * next() devuelve una vista (slice) del bloque, sin copiar: solo es válida hasta la siguiente
+ * llamada, es decir, durante el onNext que la recibe. Una línea más larga que el bloque lo hace crecer.
+ * <p>
+ * Con {@link #range} se lee solo una parte del archivo, con los límites ajustados al inicio de una
+ * línea, para que varios LineSplitter se repartan el archivo sin partir ni repetir líneas.
+ * <p>
+ * Con {@link #follow} el final del archivo no es definitivo: next() devuelve null pero la línea
+ * incompleta se conserva, y la siguiente llamada lee lo que se haya agregado desde entonces.
+ * <p>
+ * Con {@link #compressed} se lee un archivo gzip/zlib/deflate descomprimiendo a medida que se piden
+ * bloques; en ese caso las posiciones son las del contenido descomprimido.
+ */
+class LineSplitter implements AutoCloseable {
+
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final ReadableByteChannel channel;
+    private final long end;
+    private boolean follow;
+    private long position;
+    private ByteBuffer block;
+    private int scanFrom; // hasta aquí ya se buscó '\n' sin encontrarlo
+    private boolean endOfInput;
+    private byte[] scratch = new byte[256];
+
+    LineSplitter(Path path, int blockSize) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ), blockSize, 0, Long.MAX_VALUE, false);
+    }
+
+    private LineSplitter(ReadableByteChannel channel, int blockSize, long start, long end, boolean follow) {
+        this.channel = channel;
+        this.follow = follow;
+        this.position = start;
+        this.end = end;
+        this.block = this.allocate(blockSize).limit(0);
+    }
+
+    /**
+     * La parte {@code index} (de {@code count}) del archivo: desde la primera línea que empieza en
+     * {@code size * index / count} o después, hasta la primera que empieza en {@code size * (index + 1) / count}
+     * o después. Todas las partes juntas cubren el archivo exactamente una vez.
+     */
+    static LineSplitter range(Path path, int blockSize, int index, int count) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            long start = lineStart(channel, size * index / count, size);
+            long end = lineStart(channel, size * (index + 1) / count, size);
+            return new LineSplitter(channel, blockSize, start, end, false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Empieza a leer en {@code offset}, que debe ser el inicio de una línea (por ejemplo un {@link #offset()} anterior).
+     */
+    static LineSplitter from(Path path, int blockSize, long offset) throws IOException {
+        return new LineSplitter(FileChannel.open(path, StandardOpenOption.READ), blockSize, offset, Long.MAX_VALUE, false);
+    }
+
+    static LineSplitter compressed(Path path, int blockSize, Compression compression) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        try {
+            return new LineSplitter(Channels.newChannel(compression.decompress(in)), blockSize, 0, Long.MAX_VALUE, false);
+        } catch (IOException e) {
+            in.close(); // por ejemplo, un encabezado gzip inválido
+            throw e;
+        }
+    }
+
+    static LineSplitter follow(Path path, int blockSize) throws IOException {
+        return new LineSplitter(FileChannel.open(path, StandardOpenOption.READ), blockSize, 0, Long.MAX_VALUE, true);
+    }
+
+    /**
+     * Deja de esperar más contenido: lo que quede, incluida una última línea sin '\n', se
+     * devuelve con next() como en el modo normal.
+     */
+    void stopFollowing() {
+        this.follow = false;
+    }
+
+    /**
+     * Bytes leídos del archivo hasta ahora (incluye la línea incompleta pendiente).
+     */
+    long position() {
+        return this.position;
+    }
+
+    /**
+     * Posición en el archivo donde empieza la próxima línea, justo después del terminador de la última devuelta.
+     */
+    long offset() {
+        return this.position - this.block.remaining();
+    }
+
+    /**
+     * Primera posición {@code >= position} en la que empieza una línea (la siguiente a un '\n').
+     */
+    private static long lineStart(FileChannel channel, long position, long size) throws IOException {
+        if (position == 0 || position >= size) return Math.min(position, size);
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        long offset = position - 1;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read < 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return offset + i + 1;
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    /**
+     * @return la siguiente línea sin el terminador, o null al llegar al final del archivo
+     */
+    ByteBuffer next() throws IOException {
+        while (true) {
+            int start = this.block.position();
+            int newline = this.indexOfNewline(Math.max(this.scanFrom, start));
+            if (newline >= 0) {
+                int end = newline > start && this.block.get(newline - 1) == '\r' ? newline - 1 : newline;
+                this.block.position(newline + 1);
+                this.scanFrom = newline + 1;
+                return this.block.slice(start, end - start);
+            }
+            this.scanFrom = this.block.limit();
+
+            if (this.endOfInput) {
+                if (this.follow) {
+                    this.endOfInput = false; // la línea incompleta espera a su '\n'
+                    return null;
+                }
+                if (!this.block.hasRemaining()) return null;
+                ByteBuffer last = this.block.slice(start, this.block.remaining());
+                this.block.position(this.block.limit());
+                return last;
+            }
+            this.fill();
+        }
+    }
+
+    /**
+     * Busca '\n' de a 8 bytes: en {@code (x - ONES) & ~x & HIGH_BITS} (con x = palabra XOR '\n')
+     * queda encendido el bit alto de los bytes que valen '\n'. El más bajo es exacto y, con el
+     * orden little endian, corresponde al primero en el archivo.
+     */
+    private int indexOfNewline(int from) {
+        int limit = this.block.limit();
+        int i = from;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            long x = this.block.getLong(i) ^ NEWLINES;
+            long found = (x - ONES) & ~x & HIGH_BITS;
+            if (found != 0) return i + (Long.numberOfTrailingZeros(found) >>> 3);
+        }
+        for (; i < limit; i++) {
+            if (this.block.get(i) == '\n') return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Decodifica una línea devuelta por next() a String (UTF-8), pasando por un byte[] reutilizado.
+     */
+    String decode(ByteBuffer line) {
+        int length = line.remaining();
+        if (length > this.scratch.length) this.scratch = new byte[Math.max(length, this.scratch.length * 2)];
+        line.get(line.position(), this.scratch, 0, length);
+        return new String(this.scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Mueve lo pendiente al inicio del bloque (o a uno más grande si ocupa el bloque entero) y lee más.
+     */
+    private void fill() throws IOException {
+        int pending = this.block.remaining();
+        if (pending == this.block.capacity()) {
+            ByteBuffer larger = this.allocate(this.block.capacity() * 2);
+            larger.put(this.block);
+            this.block = larger;
+        } else {
+            this.block.compact();
+        }
+        this.scanFrom = pending;
+        int max = (int) Math.min(this.block.remaining(), this.end - this.position);
+        int read = -1;
+        if (max > 0) {
+            int limit = this.block.limit();
+            this.block.limit(this.block.position() + max);
+            read = this.read();
+            this.block.limit(limit);
+        }
+        if (read < 0) {
+            this.endOfInput = true;
+        } else {
+            this.position += read;
+        }
+        this.block.flip();
+    }
+
+    /**
+     * Un FileChannel se lee por posición. Un stream descomprimido entrega pocos bytes por llamada
+     * (Channels.newChannel copia de a 8KB), así que se lee hasta llenar el bloque o llegar al final.
+     */
+    private int read() throws IOException {
+        if (this.channel instanceof FileChannel file) return file.read(this.block, this.position);
+        int total = 0;
+        while (this.block.hasRemaining()) {
+            int read = this.channel.read(this.block);
+            if (read < 0) return total == 0 ? -1 : total;
+            total += read;
+        }
+        return total;
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,11 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment;
+
+/**
+ * Una línea junto con su posición en el archivo.
+ *
+ * @param offset byte donde empieza la línea
+ * @param end    byte donde empieza la siguiente (después del terminador): es lo que se guarda como
+ *               checkpoint una vez procesada la línea
+ */
+public record OffsetLine(long offset, long end, String text) {
+}
@@ -1,20 +1,179 @@
 package dev.magadiflo.app.sec04flux_emitting_items_programmatically.helper;
 
 import dev.magadiflo.app.common.Util;
+import reactor.core.Exceptions;
 import reactor.core.publisher.FluxSink;
 
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 
+/**
+ * Emisor para Flux.create que admite varios suscriptores y varios hilos productores.
+ * <p>
+ * Cada suscripción registra su propio FluxSink; generate() crea un nombre y se lo entrega a todas.
+ * A cada una se le emite solo si tiene demanda pendiente; si no, el nombre queda en su buffer, de
+ * como mucho {@code bufferSize} elementos, y se emite cuando llega el request. Con el buffer lleno
+ * se aplica {@link OverflowPolicy}. Así la memoria queda acotada en bufferSize nombres por
+ * suscriptor, sin importar cuántos hilos llamen a generate() ni qué tan lento consuman.
+ * <p>
+ * Con BLOCK, generate() puede quedar esperando: no llamarlo desde el hilo del suscriptor.
+ */
 public class NameGenerator implements Consumer<FluxSink<String>> {
 
-    private FluxSink<String> fluxSink;
+    private static final int DEFAULT_BUFFER_SIZE = 256;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger ids = new AtomicInteger();
+
+    public NameGenerator() {
+        this(DEFAULT_BUFFER_SIZE, OverflowPolicy.DROP_OLDEST);
+    }
+
+    public NameGenerator(int bufferSize, OverflowPolicy overflowPolicy) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("bufferSize debe ser mayor que 0");
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+    }
 
     @Override
     public void accept(FluxSink<String> stringFluxSink) {
-        this.fluxSink = stringFluxSink;
+        Subscription subscription = new Subscription(this.ids.incrementAndGet(), stringFluxSink);
+        this.subscriptions.add(subscription);
+        stringFluxSink.onDispose(() -> {
+            this.subscriptions.remove(subscription);
+            subscription.dispose();
+        });
+        stringFluxSink.onRequest(requested -> subscription.drain());
     }
 
     public void generate() {
-        this.fluxSink.next(Util.faker().name().firstName());
+        if (this.subscriptions.isEmpty()) return;
+        String name = Util.fakeData().firstName();
+        for (Subscription subscription : this.subscriptions) {
+            subscription.offer(name);
+        }
+    }
+
+    /**
+     * Contadores de cada suscripción activa.
+     */
+    public List<Stats> stats() {
+        return this.subscriptions.stream()
+                .map(Subscription::stats)
+                .toList();
+    }
+
+    public record Stats(int subscriber, long emitted, int buffered, long dropped) {
+    }
+
+    private final class Subscription {
+        private final int id;
+        private final FluxSink<String> sink;
+        private final ArrayDeque<String> buffer = new ArrayDeque<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = this.lock.newCondition();
+        private long emitted;
+        private long dropped;
+        private boolean disposed;
+
+        private Subscription(int id, FluxSink<String> sink) {
+            this.id = id;
+            this.sink = sink;
+        }
+
+        /**
+         * Todo pasa bajo el lock de la suscripción, así el buffer y las emisiones directas
+         * respetan el orden y la demanda se consulta y se consume sin carreras.
+         */
+        private void offer(String name) {
+            this.lock.lock();
+            try {
+                if (this.disposed) return;
+                if (this.buffer.isEmpty() && this.sink.requestedFromDownstream() > 0) {
+                    this.emit(name);
+                    return;
+                }
+                if (this.buffer.size() < NameGenerator.this.bufferSize) {
+                    this.buffer.add(name);
+                    return;
+                }
+                switch (NameGenerator.this.overflowPolicy) {
+                    case DROP_OLDEST -> {
+                        this.buffer.poll();
+                        this.buffer.add(name);
+                        this.dropped++;
+                    }
+                    case DROP_NEWEST -> this.dropped++;
+                    case BLOCK -> {
+                        while (this.buffer.size() >= NameGenerator.this.bufferSize && !this.disposed) {
+                            this.notFull.awaitUninterruptibly();
+                        }
+                        if (this.disposed) return;
+                        // Mientras esperaba, el drain pudo vaciar el buffer y dejar demanda sin
+                        // cubrir: si solo se encolara, nadie lo emitiría hasta el próximo request
+                        this.buffer.add(name);
+                        this.drainLocked();
+                    }
+                    case FAIL -> {
+                        this.dropped++;
+                        this.disposed = true;
+                        this.buffer.clear();
+                        this.sink.error(Exceptions.failWithOverflow("Buffer lleno para el suscriptor " + this.id
+                                + " (" + NameGenerator.this.bufferSize + " elementos)"));
+                    }
+                }
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void drain() {
+            this.lock.lock();
+            try {
+                this.drainLocked();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private void drainLocked() {
+            boolean drained = false;
+            while (!this.buffer.isEmpty() && this.sink.requestedFromDownstream() > 0 && !this.disposed) {
+                this.emit(this.buffer.poll());
+                drained = true;
+            }
+            if (drained) this.notFull.signalAll();
+        }
+
+        private void emit(String name) {
+            this.emitted++;
+            this.sink.next(name);
+        }
+
+        private void dispose() {
+            this.lock.lock();
+            try {
+                this.disposed = true;
+                this.buffer.clear();
+                this.notFull.signalAll();
+            } finally {
+                this.lock.unlock();
+            }
+        }
+
+        private Stats stats() {
+            this.lock.lock();
+            try {
+                return new Stats(this.id, this.emitted, this.buffer.size(), this.dropped);
+            } finally {
+                this.lock.unlock();
+            }
+        }
     }
 }
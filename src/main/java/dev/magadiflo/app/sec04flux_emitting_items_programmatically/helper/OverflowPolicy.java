@@ -0,0 +1,23 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.helper;
+
+/**
+ * Qué hacer cuando un suscriptor no tiene demanda y su buffer ya está lleno.
+ */
+public enum OverflowPolicy {
+    /**
+     * Se descarta el elemento más viejo del buffer para hacer lugar al nuevo.
+     */
+    DROP_OLDEST,
+    /**
+     * Se descarta el elemento nuevo.
+     */
+    DROP_NEWEST,
+    /**
+     * El productor espera hasta que haya lugar (o el suscriptor cancele).
+     */
+    BLOCK,
+    /**
+     * El suscriptor recibe un error de overflow y se da de baja.
+     */
+    FAIL
+}
@@ -0,0 +1,118 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.helper;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Operador de backpressure para productores que no esperan la demanda (por ejemplo un
+ * Flux.create que emite todo de entrada): como onBackpressureBuffer, pero sin límite y sin
+ * quedarse sin heap.
+ * <p>
+ * Se suscribe al upstream con demanda ilimitada y guarda lo que el downstream todavía no pidió en
+ * una {@link SpillQueue}: los primeros {@code inMemory} elementos en memoria y, cuando se llena,
+ * el resto en segmentos de {@code segmentBytes} mapeados en memoria dentro de {@code directory}.
+ * Los elementos se emiten en orden a medida que llega demanda; no se pierde ninguno. Al cancelar
+ * se cancela el upstream y se borran los segmentos.
+ * <pre>
+ * flux.transform(SpillBuffer.onBackpressureSpill(directory, 1_000, SpillSerializer.utf8()))
+ * </pre>
+ */
+public class SpillBuffer<T> {
+
+    private static final int DEFAULT_SEGMENT_BYTES = 16 * 1024 * 1024;
+    private final SpillQueue<T> queue;
+    private final FluxSink<T> sink;
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean done;
+    private volatile Throwable error;
+    private boolean terminated;
+
+    private SpillBuffer(SpillQueue<T> queue, FluxSink<T> sink) {
+        this.queue = queue;
+        this.sink = sink;
+    }
+
+    public static <T> UnaryOperator<Flux<T>> onBackpressureSpill(Path directory, int inMemory, SpillSerializer<T> serializer) {
+        return onBackpressureSpill(directory, inMemory, DEFAULT_SEGMENT_BYTES, serializer);
+    }
+
+    public static <T> UnaryOperator<Flux<T>> onBackpressureSpill(Path directory, int inMemory, int segmentBytes,
+                                                                 SpillSerializer<T> serializer) {
+        if (inMemory <= 0 || segmentBytes <= Integer.BYTES) {
+            throw new IllegalArgumentException("inMemory y segmentBytes deben ser mayores que 0");
+        }
+        return flux -> Flux.create(sink -> {
+            SpillQueue<T> queue = new SpillQueue<>(directory, inMemory, segmentBytes, serializer);
+            SpillBuffer<T> buffer = new SpillBuffer<>(queue, sink);
+            Disposable upstream = flux.subscribe(buffer::onNext, buffer::onError, buffer::onComplete);
+            sink.onRequest(requested -> buffer.drain());
+            sink.onDispose(() -> {
+                upstream.dispose();
+                queue.close();
+            });
+        });
+    }
+
+    private void onNext(T item) {
+        try {
+            this.queue.offer(item);
+        } catch (IOException | RuntimeException e) {
+            // No se pudo guardar: se corta el upstream para no seguir perdiendo elementos
+            this.sink.error(e);
+            return;
+        }
+        this.drain();
+    }
+
+    private void onError(Throwable throwable) {
+        this.error = throwable;
+        this.done = true;
+        this.drain();
+    }
+
+    private void onComplete() {
+        this.done = true;
+        this.drain();
+    }
+
+    /**
+     * Un solo hilo a la vez emite (el que entra con wip en 0); los demás solo avisan que hay
+     * algo nuevo y ese hilo vuelve a pasar.
+     */
+    private void drain() {
+        if (this.wip.getAndIncrement() != 0) return;
+        do {
+            if (this.terminated) return;
+            try {
+                while (this.sink.requestedFromDownstream() > 0 && !this.sink.isCancelled()) {
+                    T item = this.queue.poll();
+                    if (item == null) break;
+                    this.sink.next(item);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Un segmento ilegible: lo que quedaba ya no se puede emitir en orden
+                this.terminated = true;
+                this.queue.close();
+                this.sink.error(e);
+                return;
+            }
+            // Un error del upstream se emite recién después de lo que ya estaba en la cola
+            if (this.done && this.queue.isEmpty()) {
+                this.terminated = true;
+                Throwable error = this.error;
+                if (error != null) {
+                    this.sink.error(error);
+                } else {
+                    this.sink.complete();
+                }
+                return;
+            }
+        } while (this.wip.decrementAndGet() != 0);
+    }
+}
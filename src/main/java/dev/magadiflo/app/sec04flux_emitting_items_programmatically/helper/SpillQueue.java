@@ -0,0 +1,165 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.helper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+
+/**
+ * Cola FIFO con una parte en memoria, de como mucho {@code inMemory} elementos, y el resto en
+ * segmentos de disco mapeados en memoria.
+ * <p>
+ * Mientras haya algo en disco, lo nuevo también va a disco (detrás), así se respeta el orden. Cada
+ * registro es la longitud (int) y los bytes del serializer; un -1 marca el fin de un segmento
+ * que no se llenó del todo. Un segmento se borra en cuanto se terminó de leer. Los segmentos
+ * mapeados no ocupan heap: el heap usado es el de los {@code inMemory} elementos.
+ * <p>
+ * Thread-safe: cada operación toma el lock de la cola.
+ */
+class SpillQueue<T> implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SpillQueue.class);
+    private static final int END_OF_SEGMENT = -1;
+    private final Path directory;
+    private final int inMemory;
+    private final int segmentBytes;
+    private final SpillSerializer<T> serializer;
+    private final ArrayDeque<T> memory = new ArrayDeque<>();
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private long spilled;
+    private boolean closed;
+
+    SpillQueue(Path directory, int inMemory, int segmentBytes, SpillSerializer<T> serializer) {
+        this.directory = directory;
+        this.inMemory = inMemory;
+        this.segmentBytes = segmentBytes;
+        this.serializer = serializer;
+    }
+
+    /**
+     * Después de close() los elementos se descartan.
+     */
+    synchronized void offer(T item) throws IOException {
+        if (this.closed) return;
+        if (this.segments.isEmpty() && this.memory.size() < this.inMemory) {
+            this.memory.add(item);
+            return;
+        }
+        byte[] bytes = this.serializer.serialize(item);
+        Segment segment = this.segments.peekLast();
+        if (segment == null || segment.buffer.capacity() - segment.written < Integer.BYTES + bytes.length) {
+            if (segment != null) segment.finish();
+            segment = this.newSegment(Math.max(this.segmentBytes, Integer.BYTES + bytes.length));
+            this.segments.add(segment);
+        }
+        segment.buffer.putInt(segment.written, bytes.length);
+        segment.buffer.put(segment.written + Integer.BYTES, bytes);
+        segment.written += Integer.BYTES + bytes.length;
+        this.spilled++;
+    }
+
+    /**
+     * @return el siguiente elemento, o null si la cola está vacía
+     */
+    synchronized T poll() throws IOException {
+        T item = this.memory.poll();
+        if (item != null || this.closed) return item;
+        while (!this.segments.isEmpty()) {
+            Segment segment = this.segments.peekFirst();
+            if (segment.read < segment.written) {
+                int length = segment.buffer.getInt(segment.read);
+                if (length != END_OF_SEGMENT) {
+                    ByteBuffer bytes = segment.buffer.slice(segment.read + Integer.BYTES, length).asReadOnlyBuffer();
+                    segment.read += Integer.BYTES + length;
+                    this.spilled--;
+                    return this.serializer.deserialize(bytes);
+                }
+                segment.read = segment.written;
+            }
+            this.segments.pollFirst();
+            segment.delete();
+        }
+        return null;
+    }
+
+    synchronized boolean isEmpty() {
+        return this.memory.isEmpty() && this.spilled == 0;
+    }
+
+    synchronized int inMemorySize() {
+        return this.memory.size();
+    }
+
+    /**
+     * Elementos que están en disco, sin leer.
+     */
+    synchronized long spilledSize() {
+        return this.spilled;
+    }
+
+    synchronized int segmentCount() {
+        return this.segments.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        this.closed = true;
+        this.memory.clear();
+        this.segments.forEach(Segment::delete);
+        this.segments.clear();
+        this.spilled = 0;
+    }
+
+    private Segment newSegment(int size) throws IOException {
+        Path file = Files.createTempFile(this.directory, "spill-", ".segment");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // El mapeo sigue siendo válido después de cerrar el canal
+            Segment segment = new Segment(file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            log.info("Segmento de desborde creado ({} bytes)", size);
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final MappedByteBuffer buffer;
+        private int written;
+        private int read;
+
+        private Segment(Path file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        private void finish() {
+            if (this.buffer.capacity() - this.written >= Integer.BYTES) {
+                this.buffer.putInt(this.written, END_OF_SEGMENT);
+                this.written += Integer.BYTES;
+            }
+        }
+
+        /**
+         * No hay forma estándar de desmapear: el mapeo se libera cuando el GC recolecta el buffer.
+         * En Linux y macOS el archivo se puede borrar igual.
+         */
+        private void delete() {
+            try {
+                Files.deleteIfExists(this.file);
+                log.info("Segmento de desborde leído y borrado");
+            } catch (IOException e) {
+                log.warn("No se pudo borrar el segmento {}", this.file, e);
+            }
+        }
+    }
+}
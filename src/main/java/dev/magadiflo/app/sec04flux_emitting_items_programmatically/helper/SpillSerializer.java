@@ -0,0 +1,32 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.helper;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cómo se guarda un elemento en los segmentos de disco de {@link SpillBuffer}.
+ */
+public interface SpillSerializer<T> {
+
+    byte[] serialize(T item);
+
+    /**
+     * @param bytes vista de solo lectura sobre el segmento, con exactamente los bytes que devolvió
+     *              serialize(); solo es válida durante la llamada
+     */
+    T deserialize(ByteBuffer bytes);
+
+    static SpillSerializer<String> utf8() {
+        return new SpillSerializer<>() {
+            @Override
+            public byte[] serialize(String item) {
+                return item.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String deserialize(ByteBuffer bytes) {
+                return StandardCharsets.UTF_8.decode(bytes).toString();
+            }
+        };
+    }
+}
@@ -0,0 +1,219 @@
+package dev.magadiflo.app.sec04flux_emitting_items_programmatically.helper;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Entrada para muchos hilos productores y un solo consumidor, expuesta como Flux.
+ * <p>
+ * Con Flux.create todos los productores compiten por el mismo FluxSink, que serializa cada next().
+ * Aquí cada hilo queda asignado (round-robin, la primera vez que ofrece) a una de {@code stripes}
+ * colas MPSC sin locks: ofrecer es un getAndSet sobre la cola de su stripe, así que los hilos de
+ * stripes distintos no se cruzan. Un único hilo de boundedElastic() vacía las colas por lotes, de
+ * hasta la demanda pendiente, y emite en el sink sin competencia.
+ * <p>
+ * - Cada stripe guarda como mucho {@code stripeCapacity} elementos; con la cola llena offer()
+ * devuelve false y el productor decide (reintentar, descartar...). La memoria queda acotada en
+ * stripes * stripeCapacity elementos.
+ * - Se mantiene el orden de cada productor, no el orden global entre productores.
+ * - Admite un solo suscriptor. complete() (cuando los productores ya terminaron) emite lo
+ * pendiente y completa; cancelar detiene el consumidor y offer() pasa a devolver false.
+ */
+public class StripedIngestion<T> {
+
+    private static final int BATCH_SIZE = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private final Stripe<T>[] stripes;
+    private final int stripeCapacity;
+    private final AtomicInteger nextStripe = new AtomicInteger();
+    private final ThreadLocal<Stripe<T>> stripe;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private final LongAdder rejected = new LongAdder();
+    private volatile boolean done;
+    private volatile boolean closed;
+    private volatile boolean waiting;
+    private volatile Thread consumer;
+
+    public StripedIngestion() {
+        this(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1) * 2, 1024);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public StripedIngestion(int stripes, int stripeCapacity) {
+        if (stripes <= 0 || stripeCapacity <= 0) {
+            throw new IllegalArgumentException("stripes y stripeCapacity deben ser mayores que 0");
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe<>();
+        }
+        this.stripeCapacity = stripeCapacity;
+        this.stripe = ThreadLocal.withInitial(() -> this.stripes[Math.floorMod(this.nextStripe.getAndIncrement(), stripes)]);
+    }
+
+    /**
+     * Se puede llamar desde cualquier hilo, incluso en carrera con complete(): un offer que
+     * devuelve true siempre se emite.
+     *
+     * @return false si la stripe del hilo está llena, o si ya se completó o se canceló
+     */
+    public boolean offer(T item) {
+        if (this.done || this.closed) return false;
+        Stripe<T> stripe = this.stripe.get();
+        if (stripe.size.getAndIncrement() >= this.stripeCapacity) {
+            stripe.size.decrementAndGet();
+            this.rejected.increment();
+            return false;
+        }
+        // Volver a mirar done con el lugar ya reservado: si complete() llegó antes, el consumidor
+        // puede haber visto pending() == 0 y terminado, así que el elemento no se acepta
+        if (this.done) {
+            stripe.size.decrementAndGet();
+            return false;
+        }
+        stripe.add(item);
+        if (this.waiting) LockSupport.unpark(this.consumer);
+        return true;
+    }
+
+    /**
+     * No se aceptan más elementos; los que ya están en las colas se emiten y luego se completa.
+     */
+    public void complete() {
+        this.done = true;
+        LockSupport.unpark(this.consumer);
+    }
+
+    /**
+     * Cuántas veces offer() encontró la stripe llena.
+     */
+    public long rejected() {
+        return this.rejected.sum();
+    }
+
+    public Flux<T> asFlux() {
+        return Flux.create(sink -> {
+            if (!this.subscribed.compareAndSet(false, true)) {
+                sink.error(new IllegalStateException("StripedIngestion admite un solo suscriptor"));
+                return;
+            }
+            sink.onRequest(requested -> LockSupport.unpark(this.consumer));
+            sink.onDispose(() -> {
+                this.closed = true;
+                LockSupport.unpark(this.consumer);
+            });
+            Schedulers.boundedElastic().schedule(() -> this.drain(sink));
+        });
+    }
+
+    private void drain(FluxSink<T> sink) {
+        this.consumer = Thread.currentThread();
+        int from = 0;
+        while (!this.closed) {
+            long demand = sink.requestedFromDownstream();
+            if (demand == 0) {
+                this.park();
+                continue;
+            }
+            boolean done = this.done;
+            int emitted = 0;
+            int limit = (int) Math.min(demand, BATCH_SIZE);
+            for (int i = 0; i < this.stripes.length && emitted < limit; i++) {
+                Stripe<T> stripe = this.stripes[(from + i) % this.stripes.length];
+                int taken = 0;
+                T item;
+                while (emitted < limit && (item = stripe.poll()) != null) {
+                    sink.next(item);
+                    emitted++;
+                    taken++;
+                }
+                if (taken > 0) stripe.size.addAndGet(-taken);
+            }
+            from = (from + 1) % this.stripes.length; // que ninguna stripe tenga siempre prioridad
+            if (emitted > 0) continue;
+            if (done && this.pending() == 0) {
+                sink.complete();
+                return;
+            }
+            this.waiting = true;
+            if (this.isEmpty() && !this.done && !this.closed) this.park();
+            this.waiting = false;
+        }
+    }
+
+    /**
+     * Cuenta también los elementos que un productor ya reservó pero todavía no enlazó en la cola.
+     */
+    private long pending() {
+        long pending = 0;
+        for (Stripe<T> stripe : this.stripes) {
+            pending += stripe.size.get();
+        }
+        return pending;
+    }
+
+    private boolean isEmpty() {
+        for (Stripe<T> stripe : this.stripes) {
+            if (!stripe.isEmpty()) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Se despierta por un offer(), un request, complete() o cancelación; el timeout es solo un resguardo.
+     */
+    private void park() {
+        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+    }
+
+    /**
+     * Cola MPSC enlazada (Vyukov): los productores encadenan con un getAndSet sobre tail; solo
+     * el consumidor mueve head. Entre el getAndSet y el enlace con el anterior el nodo todavía no
+     * es visible: poll() puede devolver null aunque size ya lo cuente, y se toma en la próxima vuelta.
+     */
+    private static final class Stripe<T> {
+        private final AtomicReference<Node<T>> tail;
+        private final AtomicInteger size = new AtomicInteger();
+        private Node<T> head;
+
+        private Stripe() {
+            this.head = new Node<>(null);
+            this.tail = new AtomicReference<>(this.head);
+        }
+
+        private void add(T item) {
+            Node<T> node = new Node<>(item);
+            this.tail.getAndSet(node).next = node;
+        }
+
+        private T poll() {
+            Node<T> next = this.head.next;
+            if (next == null) return null;
+            this.head = next;
+            T item = next.item;
+            next.item = null;
+            return item;
+        }
+
+        private boolean isEmpty() {
+            return this.head.next == null;
+        }
+    }
+
+    private static final class Node<T> {
+        private T item;
+        private volatile Node<T> next;
+
+        private Node(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package dev.magadiflo.app.sec05operators;
+
+import ch.qos.logback.classic.Level;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderService;
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderServiceImpl;
+import dev.magadiflo.app.sec05operators.assignment.Product;
+import dev.magadiflo.app.sec05operators.assignment.ProductColumns;
+import dev.magadiflo.app.sec05operators.assignment.ProductParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catálogo de 2.000.000 de productos en CSV: filas por segundo y bytes asignados por fila con
+ * ProductParser, frente a leer cada línea como String, hacer split y parsear cada campo.
+ * Todo corre en el hilo main (no hay cambio de hilo), así que lo que asigna ese hilo es lo que
+ * cuesta cada fila. Al final, un archivo con filas erróneas que se informan sin cortar el Flux.
+ */
+public class Lec12ProductParser {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec12ProductParser.class);
+    private static final int ROWS = 2_000_000;
+
+    public static void main(String[] args) throws IOException {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(FileReaderServiceImpl.class)).setLevel(Level.WARN);
+
+        Path path = Files.createTempFile("sec05-catalog", ".csv");
+        try {
+            try (Writer writer = Files.newBufferedWriter(path)) {
+                writer.write("id,name,price\n");
+                for (int i = 0; i < ROWS; i++) {
+                    writer.write((100_000 + i) + ",Producto " + (i % 1000) + "," + (i % 10_000) / 100.0 + "\n");
+                }
+            }
+            FileReaderService fileReaderService = new FileReaderServiceImpl(64 * 1024);
+            ProductParser productParser = new ProductParser(fileReaderService, ProductColumns.csv());
+            for (int round = 1; round <= 3; round++) {
+                log.info("---- ronda {} ----", round);
+                run("String + split", fileReaderService.read(path)
+                        .skip(1)
+                        .map(line -> {
+                            String[] fields = line.split(",");
+                            return new Product(Long.parseLong(fields[0]), fields[1], Double.parseDouble(fields[2]));
+                        }));
+                run("ProductParser ", productParser.parse(path));
+            }
+
+            Files.writeString(path, """
+                    id;name;price;stock
+                    1;"Monitor 24"", IPS";159.90;3
+                    2;Teclado;diecinueve;10
+                    3;Mouse
+                    4;UPS;295.80;1
+                    """);
+            AtomicLong rejected = new AtomicLong();
+            new ProductParser(fileReaderService, new ProductColumns(';', true, 0, 1, 2))
+                    .parse(path, row -> {
+                        rejected.incrementAndGet();
+                        log.info("descartada: {}", row);
+                    })
+                    .doOnNext(product -> log.info("producto: {}", product))
+                    .blockLast();
+            log.info("{} filas descartadas", rejected.get());
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private static void run(String name, Flux<Product> products) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        Long count = products.count().block();
+        long elapsed = System.nanoTime() - start;
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        log.info("{}: {} filas en {} ms | {} filas/s | {} bytes/fila", name, count, elapsed / 1_000_000,
+                count * 1_000_000_000L / elapsed, allocated / count);
+    }
+}
@@ -0,0 +1,64 @@
+package dev.magadiflo.app.sec05operators;
+
+import dev.magadiflo.app.common.RateLimiter;
+import dev.magadiflo.app.common.Util;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Un Flux.generate que produce tan rápido como puede, limitado con RateLimiter: primero a
+ * 100.000 elementos/s, después (sin volver a suscribirse) a 10.000/s. Al final, limitByKey a 100
+ * elementos/s por clave, con una clave "caliente" (el mismo generate, que produce sin parar) y una
+ * "fría" (unos 50 elementos/s): la fría pasa completa aunque la caliente esté frenada por su bucket
+ * y descartando lo que le sobra.
+ */
+public class Lec13RateLimit {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec13RateLimit.class);
+
+    public static void main(String[] args) {
+        RateLimiter rateLimiter = new RateLimiter(100_000, 2_000);
+        AtomicLong count = new AtomicLong();
+        Disposable subscription = numbers()
+                .transform(rateLimiter.limit())
+                .subscribe(number -> count.incrementAndGet());
+
+        for (int second = 1; second <= 6; second++) {
+            if (second == 4) {
+                rateLimiter.setRate(10_000);
+                rateLimiter.setBurst(200);
+                log.info("Nuevo límite: {} elementos/s", rateLimiter.rate());
+            }
+            Util.sleepSeconds(1);
+            log.info("segundo {}: {} elementos", second, count.getAndSet(0));
+        }
+        subscription.dispose();
+
+        Map<String, AtomicLong> byKey = new ConcurrentHashMap<>();
+        // Sin la demanda como freno, el generate no para nunca: que no ocupe el hilo main
+        Flux<String> hot = numbers().map(number -> "caliente").subscribeOn(Schedulers.boundedElastic());
+        Flux<String> cold = Flux.interval(Duration.ofMillis(20)).map(number -> "fría");
+        Disposable keyed = Flux.merge(hot, cold)
+                .transform(new RateLimiter(100, 10).limitByKey(Function.identity()))
+                .subscribe(key -> byKey.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet());
+        Util.sleepSeconds(2);
+        keyed.dispose();
+        log.info("Por clave en 2 segundos (caliente ~200, fría ~100): {}", byKey);
+    }
+
+    private static Flux<Long> numbers() {
+        return Flux.generate(() -> 0L, (state, synchronousSink) -> {
+            synchronousSink.next(state);
+            return state + 1;
+        });
+    }
+}
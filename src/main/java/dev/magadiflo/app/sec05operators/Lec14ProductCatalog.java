@@ -0,0 +1,67 @@
+package dev.magadiflo.app.sec05operators;
+
+import dev.magadiflo.app.common.Util;
+import dev.magadiflo.app.sec05operators.assignment.Product;
+import dev.magadiflo.app.sec05operators.assignment.ProductCatalog;
+import dev.magadiflo.app.sec05operators.assignment.ProductIndex;
+import dev.magadiflo.app.sec05operators.assignment.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+import java.util.Random;
+
+/**
+ * ProductService con catálogo indexado: el origen real tarda unos 16 segundos, así que mientras
+ * carga cada búsqueda espera los 2 segundos del timeout y responde con los datos de respaldo, que
+ * no se guardan. Cuando la carga termina, las búsquedas salen del catálogo sin esperar. Después,
+ * un catálogo de 1.000.000 de productos: latencia por búsqueda y búsquedas en bloque.
+ */
+public class Lec14ProductCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(Lec14ProductCatalog.class);
+    private static final int PRODUCTS = 1_000_000;
+    private static final int LOOKUPS = 1_000_000;
+
+    public static void main(String[] args) {
+        ProductService productService = new ProductService();
+        lookup(productService, 1L); // respaldo: el catálogo todavía está cargando
+        Util.sleepSeconds(16);
+        lookup(productService, 2L);
+        lookup(productService, 3L);
+        log.info("En bloque: {}", productService.getProductNames(Flux.just(4L, 99L, 2L)).collectList().block());
+
+        ProductCatalog catalog = new ProductCatalog(() -> Flux.range(0, PRODUCTS)
+                .map(i -> new Product(i * 7L, "Producto " + i, i / 100.0)));
+        ProductIndex index = catalog.index().block();
+        Random random = new Random(42);
+        long[] ids = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            ids[i] = random.nextInt(PRODUCTS) * 7L;
+        }
+        for (int round = 1; round <= 3; round++) {
+            long start = System.nanoTime();
+            long found = 0;
+            for (long id : ids) {
+                if (index.get(id) != null) found++;
+            }
+            long elapsed = System.nanoTime() - start;
+            log.info("ronda {}: {} búsquedas ({} encontradas), {} ns por búsqueda", round, LOOKUPS, found, elapsed / LOOKUPS);
+        }
+
+        // Mientras se recarga, las búsquedas siguen con el snapshot anterior
+        catalog.refresh().subscribe();
+        long start = System.nanoTime();
+        Long count = catalog.index()
+                .flatMapMany(current -> Flux.range(0, LOOKUPS).map(i -> current.get(ids[i])))
+                .count()
+                .block();
+        log.info("{} búsquedas con Flux en {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void lookup(ProductService productService, long productId) {
+        long start = System.nanoTime();
+        String name = productService.getProductName(productId).block();
+        log.info("getProductName({}) = {} en {} µs", productId, name, (System.nanoTime() - start) / 1_000);
+    }
+}
@@ -0,0 +1,84 @@
+package dev.magadiflo.app.sec05operators.assignment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Catálogo de productos en memoria: lee el Flux de {@code source} una vez y lo guarda en un
+ * {@link ProductIndex}, así cada búsqueda es O(1) en lugar de recorrer el catálogo.
+ * <p>
+ * La primera carga se hace al pedir el índice por primera vez y la comparten todos los que
+ * lleguen mientras tanto. Corre con su propia suscripción, así que termina aunque quien la pidió
+ * deje de esperar (por ejemplo, con un timeout); si falla, el siguiente pedido vuelve a intentar.
+ * refresh() arma un índice nuevo y lo reemplaza de una vez (snapshot): los lectores nunca esperan
+ * y siempre ven un índice completo, el anterior o el nuevo.
+ * <p>
+ * Cada carga toma un número de generación al empezar y solo se publica si no hay publicada una
+ * más nueva: una carga lenta (la primera, o un refresh() anterior) que termina después no vuelve
+ * a dejar datos viejos.
+ */
+public class ProductCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalog.class);
+    private final Supplier<Flux<Product>> source;
+    private final AtomicReference<Mono<ProductIndex>> firstLoad = new AtomicReference<>();
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    public ProductCatalog(Supplier<Flux<Product>> source) {
+        this.source = source;
+    }
+
+    public Mono<ProductIndex> index() {
+        Snapshot current = this.current.get();
+        if (current != null) return Mono.just(current.index());
+        Mono<ProductIndex> load = this.firstLoad.get();
+        if (load == null) {
+            Mono<ProductIndex> created = this.refresh()
+                    .doOnError(throwable -> this.firstLoad.set(null))
+                    .cache();
+            load = this.firstLoad.compareAndExchange(null, created);
+            if (load == null) {
+                load = created;
+                created.subscribe(loaded -> {
+                }, throwable -> log.warn("No se pudo cargar el catálogo", throwable));
+            }
+        }
+        return load;
+    }
+
+    /**
+     * @return el índice vigente al terminar: el cargado, o uno más nuevo si otra carga se publicó antes
+     */
+    public Mono<ProductIndex> refresh() {
+        return Mono.defer(() -> {
+            long generation = this.generations.incrementAndGet();
+            return this.source.get()
+                    .collectList()
+                    .map(products -> this.publish(new Snapshot(generation, ProductIndex.of(products))));
+        });
+    }
+
+    private ProductIndex publish(Snapshot loaded) {
+        while (true) {
+            Snapshot current = this.current.get();
+            if (current != null && current.generation() > loaded.generation()) {
+                log.info("Catálogo de la carga {} descartado: ya hay uno más nuevo", loaded.generation());
+                return current.index();
+            }
+            if (this.current.compareAndSet(current, loaded)) {
+                log.info("Catálogo cargado: {} productos", loaded.index().size());
+                return loaded.index();
+            }
+        }
+    }
+
+    private record Snapshot(long generation, ProductIndex index) {
+    }
+}
@@ -0,0 +1,36 @@
+package dev.magadiflo.app.sec05operators.assignment;
+
+/**
+ * Dónde está cada campo de Product en las filas del archivo: el separador, si la primera fila es
+ * un encabezado (se saltea) y el índice (desde 0) de las columnas id, name y price.
+ * Las demás columnas se ignoran.
+ */
+public record ProductColumns(char delimiter, boolean header, int id, int name, int price) {
+
+    public ProductColumns {
+        if (delimiter == '"' || delimiter == '\n' || delimiter == '\r' || delimiter > 0x7F) {
+            throw new IllegalArgumentException("Separador no válido: " + delimiter);
+        }
+        if (id < 0 || name < 0 || price < 0 || id == name || id == price || name == price) {
+            throw new IllegalArgumentException("Índices de columna no válidos: " + id + ", " + name + ", " + price);
+        }
+    }
+
+    /**
+     * Separado por comas, con encabezado y las columnas en el orden id, name, price.
+     */
+    public static ProductColumns csv() {
+        return new ProductColumns(',', true, 0, 1, 2);
+    }
+
+    /**
+     * Separado por tabuladores, con encabezado y las columnas en el orden id, name, price.
+     */
+    public static ProductColumns tsv() {
+        return new ProductColumns('\t', true, 0, 1, 2);
+    }
+
+    int columns() {
+        return Math.max(this.id, Math.max(this.name, this.price)) + 1;
+    }
+}
@@ -0,0 +1,74 @@
+package dev.magadiflo.app.sec05operators.assignment;
+
+import java.util.Collection;
+
+/**
+ * Índice inmutable de productos por id: tabla hash de direccionamiento abierto (sondeo lineal)
+ * con las claves en un long[], sin boxing. Ocupa como mucho la mitad de la tabla, así que una
+ * búsqueda mira en promedio uno o dos casilleros.
+ * <p>
+ * Al ser inmutable, se puede leer desde cualquier hilo sin sincronizar; para actualizarlo se
+ * construye uno nuevo (ver {@link ProductCatalog}).
+ */
+public final class ProductIndex {
+
+    private final long[] ids;
+    private final Product[] products;
+    private final int mask;
+    private final int size;
+
+    private ProductIndex(long[] ids, Product[] products, int size) {
+        this.ids = ids;
+        this.products = products;
+        this.mask = ids.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Los productos sin id se ignoran; si un id se repite, queda el último.
+     */
+    public static ProductIndex of(Collection<Product> products) {
+        int capacity = Integer.highestOneBit(Math.max(2, products.size()) * 2 - 1) * 2;
+        long[] ids = new long[capacity];
+        Product[] values = new Product[capacity];
+        int mask = capacity - 1;
+        int size = 0;
+        for (Product product : products) {
+            if (product.id() == null) continue;
+            long id = product.id();
+            int slot = slot(id, mask);
+            while (values[slot] != null && ids[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            if (values[slot] == null) size++;
+            ids[slot] = id;
+            values[slot] = product;
+        }
+        return new ProductIndex(ids, values, size);
+    }
+
+    /**
+     * @return el producto, o null si no existe
+     */
+    public Product get(long id) {
+        int slot = slot(id, this.mask);
+        Product product;
+        while ((product = this.products[slot]) != null) {
+            if (this.ids[slot] == id) return product;
+            slot = (slot + 1) & this.mask;
+        }
+        return null;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Mezcla los bits del id (ids consecutivos no quedan en casilleros consecutivos).
+     */
+    private static int slot(long id, int mask) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,54 @@
+package dev.magadiflo.app.sec05operators.assignment;
+
+import dev.magadiflo.app.sec04flux_emitting_items_programmatically.assignment.FileReaderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Lee un catálogo de productos en texto separado (CSV, TSV...) y emite un Product por fila.
+ * <p>
+ * Trabaja sobre las líneas como bytes (FileReaderService.readLines), así que por fila no se crean
+ * el String de la línea, ni el arreglo de split, ni los String de cada campo: solo el Product, su
+ * name y, si no caen en la caché de Long, el id. Las filas con errores no cortan el Flux: se
+ * informan como RejectedRow y se sigue con la siguiente.
+ */
+public class ProductParser {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductParser.class);
+    private final FileReaderService fileReaderService;
+    private final ProductColumns columns;
+
+    public ProductParser(FileReaderService fileReaderService, ProductColumns columns) {
+        this.fileReaderService = fileReaderService;
+        this.columns = columns;
+    }
+
+    /**
+     * Las filas descartadas se registran en el log.
+     */
+    public Flux<Product> parse(Path path) {
+        return this.parse(path, rejected -> log.warn("Fila {} descartada ({}): {}",
+                rejected.line(), rejected.reason(), rejected.text()));
+    }
+
+    public Flux<Product> parse(Path path, Consumer<RejectedRow> onRejected) {
+        return Flux.defer(() -> {
+            ProductRowParser parser = new ProductRowParser(this.columns);
+            return this.fileReaderService.readLines(path)
+                    .handle((ByteBuffer line, SynchronousSink<Product> synchronousSink) -> {
+                        Product product = parser.parse(line);
+                        if (product != null) {
+                            synchronousSink.next(product);
+                        } else if (parser.reason() != null) {
+                            onRejected.accept(parser.rejected(line));
+                        }
+                    });
+        });
+    }
+}
@@ -0,0 +1,239 @@
+package dev.magadiflo.app.sec05operators.assignment;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Convierte una línea (los bytes, tal como los entrega FileReaderService.readLines) en un Product.
+ * <p>
+ * Los campos se ubican sobre los bytes sin copiarlos; id y price se calculan directamente desde
+ * los dígitos, sin armar un String. El único String que se crea es el de name. Un campo puede ir
+ * entre comillas dobles, con "" para una comilla dentro del texto.
+ * <p>
+ * Tiene estado (número de línea y buffer de trabajo): una instancia por suscripción.
+ */
+class ProductRowParser {
+
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private final ProductColumns columns;
+    private final int[] starts;
+    private final int[] ends;
+    private final boolean[] escaped;
+    private byte[] scratch = new byte[256];
+    private long line;
+    private String reason;
+
+    ProductRowParser(ProductColumns columns) {
+        this.columns = columns;
+        this.starts = new int[columns.columns()];
+        this.ends = new int[columns.columns()];
+        this.escaped = new boolean[columns.columns()];
+    }
+
+    /**
+     * @return el producto, o null si la línea se saltea (encabezado o vacía; reason() es null) o se
+     * descarta (reason() dice por qué)
+     */
+    Product parse(ByteBuffer row) {
+        this.line++;
+        this.reason = null;
+        int position = row.position();
+        if (this.line == 1 && row.remaining() >= 3 && (row.get(position) & 0xFF) == 0xEF
+                && (row.get(position + 1) & 0xFF) == 0xBB && (row.get(position + 2) & 0xFF) == 0xBF) {
+            position += 3; // BOM de UTF-8
+        }
+        if (this.line == 1 && this.columns.header() || position == row.limit()) return null;
+        if (!this.split(row, position)) return null;
+
+        int id = this.columns.id();
+        long productId = this.parseLong(row, this.starts[id], this.ends[id]);
+        if (this.reason != null) return null;
+        int price = this.columns.price();
+        double productPrice = this.parseDouble(row, this.starts[price], this.ends[price]);
+        if (this.reason != null) return null;
+        return new Product(productId, this.text(row, this.columns.name()), productPrice);
+    }
+
+    String reason() {
+        return this.reason;
+    }
+
+    RejectedRow rejected(ByteBuffer row) {
+        int length = row.remaining();
+        byte[] bytes = new byte[length];
+        row.get(row.position(), bytes, 0, length);
+        return new RejectedRow(this.line, new String(bytes, StandardCharsets.UTF_8), this.reason);
+    }
+
+    /**
+     * Anota dónde empieza y termina cada campo hasta la última columna que se usa; el resto de la
+     * línea no se recorre.
+     */
+    private boolean split(ByteBuffer row, int position) {
+        int limit = row.limit();
+        byte delimiter = (byte) this.columns.delimiter();
+        for (int column = 0; column < this.starts.length; column++) {
+            if (column > 0) {
+                if (position == limit) return this.reject("Faltan columnas: hay " + column + " de " + this.starts.length);
+                position++; // el separador
+            }
+            this.escaped[column] = false;
+            if (position < limit && row.get(position) == '"') {
+                int start = position + 1;
+                int quote = start;
+                while (true) {
+                    while (quote < limit && row.get(quote) != '"') quote++;
+                    if (quote == limit) return this.reject("Comillas sin cerrar en la columna " + column);
+                    if (quote + 1 < limit && row.get(quote + 1) == '"') {
+                        this.escaped[column] = true;
+                        quote += 2;
+                    } else {
+                        break;
+                    }
+                }
+                this.starts[column] = start;
+                this.ends[column] = quote;
+                position = quote + 1;
+                if (position < limit && row.get(position) != delimiter) {
+                    return this.reject("Texto después de las comillas en la columna " + column);
+                }
+            } else {
+                this.starts[column] = position;
+                while (position < limit && row.get(position) != delimiter) position++;
+                this.ends[column] = position;
+            }
+        }
+        return true;
+    }
+
+    private long parseLong(ByteBuffer row, int start, int end) {
+        while (start < end && row.get(start) == ' ') start++;
+        while (end > start && row.get(end - 1) == ' ') end--;
+        if (start == end) return this.rejectNumber("id vacío");
+        boolean negative = row.get(start) == '-';
+        if (negative || row.get(start) == '+') start++;
+        if (start == end) return this.rejectNumber("id no válido");
+        // Se acumula en negativo, como Long.parseLong, para poder representar Long.MIN_VALUE
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplicationLimit = limit / 10;
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = row.get(i) - '0';
+            if (digit < 0 || digit > 9) return this.rejectNumber("id no válido");
+            if (result < multiplicationLimit) return this.rejectNumber("id fuera de rango");
+            result *= 10;
+            if (result < limit + digit) return this.rejectNumber("id fuera de rango");
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Mantisa y exponente decimal desde los dígitos. Si la mantisa entra exacta en un double
+     * (hasta 2^53) y el exponente está entre -22 y 22, una sola multiplicación o división da el
+     * resultado correctamente redondeado. Los casos que no cumplen eso (más de 15 dígitos
+     * significativos) son raros en un precio y se resuelven con Double.parseDouble.
+     */
+    private double parseDouble(ByteBuffer row, int start, int end) {
+        while (start < end && row.get(start) == ' ') start++;
+        while (end > start && row.get(end - 1) == ' ') end--;
+        int first = start;
+        boolean negative = start < end && row.get(start) == '-';
+        if (negative || start < end && row.get(start) == '+') start++;
+
+        long mantissa = 0;
+        int significant = 0;
+        int exponent = 0;
+        int digits = 0;
+        boolean point = false;
+        int i = start;
+        for (; i < end; i++) {
+            byte b = row.get(i);
+            if (b == '.' && !point) {
+                point = true;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) break;
+            digits++;
+            if (mantissa == 0 && digit == 0) {
+                if (point) exponent--;
+                continue;
+            }
+            if (significant < 19) {
+                mantissa = mantissa * 10 + digit;
+                significant++;
+                if (point) exponent--;
+            } else if (!point) {
+                exponent++; // dígito que no entra en la mantisa; igual va al Double.parseDouble
+            }
+        }
+        if (digits == 0) return this.rejectDouble("price no válido");
+        if (i < end && (row.get(i) == 'e' || row.get(i) == 'E')) {
+            i++;
+            boolean negativeExponent = i < end && row.get(i) == '-';
+            if (negativeExponent || i < end && row.get(i) == '+') i++;
+            if (i == end) return this.rejectDouble("price no válido");
+            int value = 0;
+            for (; i < end; i++) {
+                int digit = row.get(i) - '0';
+                if (digit < 0 || digit > 9) return this.rejectDouble("price no válido");
+                if (value < 10_000) value = value * 10 + digit;
+            }
+            exponent += negativeExponent ? -value : value;
+        }
+        if (i != end) return this.rejectDouble("price no válido");
+
+        double result;
+        if (mantissa == 0) {
+            result = 0.0;
+        } else if (significant <= 15 && exponent >= -22 && exponent <= 22) {
+            result = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return Double.parseDouble(this.ascii(row, first, end));
+        }
+        return negative ? -result : result;
+    }
+
+    private String text(ByteBuffer row, int column) {
+        int start = this.starts[column];
+        int length = this.ends[column] - start;
+        if (length > this.scratch.length) this.scratch = new byte[Math.max(length, this.scratch.length * 2)];
+        if (!this.escaped[column]) {
+            row.get(start, this.scratch, 0, length);
+            return new String(this.scratch, 0, length, StandardCharsets.UTF_8);
+        }
+        int count = 0;
+        for (int i = start; i < start + length; i++) {
+            byte b = row.get(i);
+            this.scratch[count++] = b;
+            if (b == '"') i++; // "" -> "
+        }
+        return new String(this.scratch, 0, count, StandardCharsets.UTF_8);
+    }
+
+    private String ascii(ByteBuffer row, int start, int end) {
+        int length = end - start;
+        if (length > this.scratch.length) this.scratch = new byte[Math.max(length, this.scratch.length * 2)];
+        row.get(start, this.scratch, 0, length);
+        return new String(this.scratch, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private boolean reject(String reason) {
+        this.reason = reason;
+        return false;
+    }
+
+    private long rejectNumber(String reason) {
+        this.reason = reason;
+        return 0;
+    }
+
+    private double rejectDouble(String reason) {
+        this.reason = reason;
+        return 0;
+    }
+}
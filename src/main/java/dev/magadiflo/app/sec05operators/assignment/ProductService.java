@@ -11,15 +11,52 @@ public class ProductService {
 
     private static final Logger log = LoggerFactory.getLogger(ProductService.class);
     private static final boolean IS_EMPTY = false;
+    // Solo el origen real: los fallbacks son respuestas degradadas y no se guardan como catálogo
+    private final ProductCatalog catalog = new ProductCatalog(this::getProductsDefault);
 
     public Mono<String> getProductName(Long productId) {
-        return this.getProductsDefault()
-                .switchIfEmpty(getProductsTimeoutEmpty())
-                .timeout(Duration.ofSeconds(2), getProductsTimeoutFallback())
-                .doOnNext(product -> log.info("product: {}", product))
-                .filter(product -> product.id().equals(productId))
-                .next()
-                .map(Product::name);
+        if (productId == null) return Mono.empty();
+        return this.index()
+                .mapNotNull(index -> name(index, productId));
+    }
+
+    /**
+     * Todos los ids se buscan en el mismo snapshot del catálogo; los que no existen se omiten.
+     */
+    public Flux<String> getProductNames(Flux<Long> productIds) {
+        return this.index()
+                .flatMapMany(index -> productIds.mapNotNull(productId -> name(index, productId)));
+    }
+
+    /**
+     * Vuelve a leer el catálogo; mientras tanto las búsquedas siguen usando el anterior.
+     */
+    public Mono<Void> refreshCatalog() {
+        return this.catalog.refresh().then();
+    }
+
+    /**
+     * Igual que antes del catálogo: si el origen está vacío se usa getProductsTimeoutEmpty(), y si
+     * no responde en 2 segundos, getProductsTimeoutFallback(). Esos índices se arman en cada
+     * llamada y no se guardan; la carga del catálogo real sigue en segundo plano y, cuando
+     * termina, las búsquedas ya no esperan.
+     */
+    private Mono<ProductIndex> index() {
+        return this.catalog.index()
+                .filter(index -> index.size() > 0)
+                .switchIfEmpty(fallbackIndex(this.getProductsTimeoutEmpty()))
+                .timeout(Duration.ofSeconds(2), fallbackIndex(this.getProductsTimeoutFallback()));
+    }
+
+    private static Mono<ProductIndex> fallbackIndex(Flux<Product> products) {
+        return products.collectList()
+                .map(ProductIndex::of)
+                .doOnNext(index -> log.warn("Catálogo no disponible, se responde con datos de respaldo"));
+    }
+
+    private static String name(ProductIndex index, long productId) {
+        Product product = index.get(productId);
+        return product == null ? null : product.name();
     }
 
     private Flux<Product> getProductsDefault() {
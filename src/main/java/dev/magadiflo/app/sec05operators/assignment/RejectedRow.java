@@ -0,0 +1,7 @@
+package dev.magadiflo.app.sec05operators.assignment;
+
+/**
+ * Una fila que no se pudo convertir en Product: su número de línea (desde 1), el texto y el motivo.
+ */
+public record RejectedRow(long line, String text, String reason) {
+}
@@ -30,7 +30,7 @@ public class Lec04HotPublisherCache {
     }
 
     private static Flux<Integer> stockStream() {
-        return Flux.generate(sink -> sink.next(Util.faker().random().nextInt(10, 100)))
+        return Flux.generate(sink -> sink.next(Util.fakeData().nextInt(10, 100)))
                 .delayElements(Duration.ofSeconds(3))
                 .doOnNext(price -> log.info("Emitiendo precio: {}", price))
                 .cast(Integer.class);